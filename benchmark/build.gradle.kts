@@ -0,0 +1,18 @@
+plugins {
+    alias(libs.plugins.jmh)
+}
+
+dependencies {
+    implementation(projects.common)
+    implementation(testFixtures(projects.common))
+    implementation(libs.miniplaceholders)
+    implementation(libs.luckperms)
+    implementation(libs.adventure.api)
+    implementation(libs.adventure.minimessage)
+    implementation(libs.adventure.legacy)
+    implementation(libs.guava)
+}
+
+jmh {
+    profilers.add("gc")
+}
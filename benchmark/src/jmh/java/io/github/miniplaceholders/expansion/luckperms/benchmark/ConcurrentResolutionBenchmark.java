@@ -0,0 +1,135 @@
+package io.github.miniplaceholders.expansion.luckperms.benchmark;
+
+import io.github.miniplaceholders.api.Expansion;
+import io.github.miniplaceholders.expansion.luckperms.common.CommonExpansion;
+import io.github.miniplaceholders.expansion.luckperms.fake.FakeLuckPerms;
+import io.github.miniplaceholders.expansion.luckperms.fake.FakeNode;
+import io.github.miniplaceholders.expansion.luckperms.fake.FakePlayer;
+import io.github.miniplaceholders.expansion.luckperms.fake.FakeUser;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
+import net.luckperms.api.node.Node;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static io.github.miniplaceholders.api.utils.Components.FALSE_COMPONENT;
+import static io.github.miniplaceholders.api.utils.Components.TRUE_COMPONENT;
+
+/**
+ * Resolves every placeholder from several threads while another one keeps
+ * changing the permissions of the same users, like region threads on Folia
+ * or Netty threads on Velocity would.
+ *
+ * <p>After each change the mutating thread checks it resolves the new value, so a cache
+ * serving stale data after a concurrent invalidation fails the benchmark.
+ * Compare the throughput of {@code resolve} with {@code -tg 1,1}, {@code -tg 4,1} and so on
+ * to check it scales with the amount of resolving threads.</p>
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConcurrentResolutionBenchmark {
+    private static final String TOGGLED = "benchmark.toggled";
+    private static final String EVERY_PLACEHOLDER = "<luckperms_prefix><luckperms_suffix>"
+        + "<luckperms_has_permission:" + TOGGLED + "><luckperms_check_permission:benchmark.missing>"
+        + "<luckperms_has_any_permission:benchmark.missing:" + TOGGLED + "><luckperms_has_all_permissions:benchmark.default.0:" + TOGGLED + ">"
+        + "<luckperms_count_permissions:benchmark>"
+        + "<luckperms_inherited_groups><luckperms_primary_group_name><luckperms_inherits_group:default>"
+        + "<luckperms_primary_group_weight><luckperms_sort_key>"
+        + "<luckperms_meta:color><luckperms_context:world><luckperms_static_context:server>"
+        + "<luckperms_expiry_time:benchmark.temporary.0:m><luckperms_inherited_expiry_time:benchmark.temporary.0:m>"
+        + "<luckperms_group_expiry_time:vip:d><luckperms_inherited_group_expiry_time:vip:d>"
+        + "<luckperms_global_static_context:server><luckperms_group_prefix:default><luckperms_group_suffix:default>"
+        + "<luckperms_group_display_name:default><luckperms_group_weight:default><luckperms_loaded_groups>";
+    private static final String TOGGLED_PLACEHOLDER = "<luckperms_has_permission:" + TOGGLED + ">";
+
+    @Param({"16"})
+    public int users;
+
+    private final MiniMessage miniMessage = MiniMessage.miniMessage();
+    private FakeLuckPerms luckPerms;
+    private TagResolver[] resolvers;
+    private List<List<Node>> granted;
+    private List<List<Node>> revoked;
+    private boolean[] hasToggled;
+
+    @Setup
+    public void setup() {
+        this.luckPerms = FakeLuckPerms.builder()
+            .users(users)
+            .build();
+        final CommonExpansion expansion = new CommonExpansion(luckPerms);
+        expansion.registerListeners(this);
+        final Expansion built = expansion.commonBuilder().build();
+
+        this.resolvers = new TagResolver[users];
+        this.granted = new ArrayList<>(users);
+        this.revoked = new ArrayList<>(users);
+        this.hasToggled = new boolean[users];
+        for (int i = 0; i < users; i++) {
+            final FakeUser user = luckPerms.users().get(i);
+            this.resolvers[i] = TagResolver.resolver(
+                built.audiencePlaceholders(new FakePlayer(user.getUniqueId())),
+                built.globalPlaceholders()
+            );
+            this.revoked.add(List.copyOf(user.getNodes()));
+            final List<Node> nodes = new ArrayList<>(user.getNodes());
+            nodes.add(FakeNode.permission(TOGGLED));
+            this.granted.add(List.copyOf(nodes));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        int next(int bound) {
+            final int index = next;
+            next = index + 1 == bound ? 0 : index + 1;
+            return index;
+        }
+    }
+
+    @Benchmark
+    @Group("mutating")
+    @GroupThreads(3)
+    public Component resolve(final Cursor cursor) {
+        return miniMessage.deserialize(EVERY_PLACEHOLDER, resolvers[cursor.next(users)]);
+    }
+
+    @Benchmark
+    @Group("mutating")
+    @GroupThreads(1)
+    public Component mutate(final Cursor cursor) {
+        final int index = cursor.next(users);
+        final boolean toggled = !hasToggled[index];
+        hasToggled[index] = toggled;
+        final FakeUser user = luckPerms.users().get(index);
+        luckPerms.mutate(user, toggled ? granted.get(index) : revoked.get(index));
+
+        final Component resolved = miniMessage.deserialize(TOGGLED_PLACEHOLDER, resolvers[index]);
+        if (!resolved.contains(toggled ? TRUE_COMPONENT : FALSE_COMPONENT, Component::equals)) {
+            throw new IllegalStateException("Stale permission of " + user.getUsername() + ": " + resolved);
+        }
+        return resolved;
+    }
+}
@@ -0,0 +1,96 @@
+package io.github.miniplaceholders.expansion.luckperms.benchmark;
+
+import io.github.miniplaceholders.api.Expansion;
+import io.github.miniplaceholders.expansion.luckperms.common.CommonExpansion;
+import io.github.miniplaceholders.expansion.luckperms.fake.FakeLuckPerms;
+import io.github.miniplaceholders.expansion.luckperms.fake.FakePlayer;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves a full MiniMessage string containing a luckperms placeholder,
+ * or a typical chat format combining several of them.
+ *
+ * <p>Run with the {@code gc} profiler (enabled by default in the build) to get the allocation rate.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlaceholderBenchmark {
+    @Param({
+        "<luckperms_prefix>",
+        "<luckperms_suffix>",
+        "<luckperms_has_permission:benchmark.default.0>",
+        "<luckperms_check_permission:benchmark.missing>",
+        "<luckperms_has_any_permission:benchmark.missing:benchmark.default.0>",
+        "<luckperms_has_all_permissions:benchmark.default.0:benchmark.default.1>",
+        "<luckperms_count_permissions:benchmark.default>",
+        "<luckperms_inherited_groups>",
+        "<luckperms_primary_group_name>",
+        "<luckperms_primary_group_weight>",
+        "<luckperms_sort_key>",
+        "<luckperms_inherits_group:default>",
+        "<luckperms_meta:color>",
+        "<luckperms_context:world>",
+        "<luckperms_static_context:server>",
+        "<luckperms_expiry_time:benchmark.temporary.0:m>",
+        "<luckperms_inherited_expiry_time:benchmark.temporary.0:m>",
+        "<luckperms_group_expiry_time:vip:d>",
+        "<luckperms_inherited_group_expiry_time:vip:d>",
+        "<luckperms_global_static_context:server>",
+        "<luckperms_group_prefix:default>",
+        "<luckperms_group_suffix:default>",
+        "<luckperms_group_display_name:default>",
+        "<luckperms_group_weight:default>",
+        "<luckperms_loaded_groups>",
+        "<luckperms_prefix>player<luckperms_suffix> [<luckperms_primary_group_name>]"
+    })
+    public String input;
+
+    @Param({"50", "500"})
+    public int nodes;
+
+    @Param({"3", "10"})
+    public int inheritanceDepth;
+
+    private final MiniMessage miniMessage = MiniMessage.miniMessage();
+    private TagResolver resolver;
+
+    @Setup
+    public void setup() {
+        final FakeLuckPerms luckPerms = FakeLuckPerms.builder()
+            .nodesPerUser(nodes)
+            .nodesPerGroup(nodes)
+            .inheritanceDepth(inheritanceDepth)
+            .build();
+        final CommonExpansion expansion = new CommonExpansion(luckPerms);
+        expansion.registerListeners(this);
+        final Expansion built = expansion.commonBuilder().build();
+        this.resolver = TagResolver.resolver(
+            built.audiencePlaceholders(new FakePlayer(luckPerms.users().get(0).getUniqueId())),
+            built.globalPlaceholders()
+        );
+    }
+
+    @Benchmark
+    public Component resolve() {
+        return miniMessage.deserialize(input, resolver);
+    }
+}
@@ -0,0 +1,62 @@
+package io.github.miniplaceholders.expansion.luckperms.common;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formats a duration spanning every unit with each of the accuracies of the expiry placeholders.
+ *
+ * <p>Lives in the {@code common} package as {@link DurationFormatter} is package-private.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DurationFormatterBenchmark {
+    @Param({"LONG", "YEARS", "MONTHS", "WEEKS", "DAYS", "HOURS", "MINUTES", "SECONDS"})
+    public String accuracy;
+
+    private final Duration duration = Duration.ofDays(400).plusHours(5).plusMinutes(4).plusSeconds(3);
+    private final StringBuilder builder = new StringBuilder();
+    private DurationFormatter formatter;
+
+    @Setup
+    public void setup() {
+        this.formatter = switch (accuracy) {
+            case "LONG" -> DurationFormatter.LONG;
+            case "YEARS" -> DurationFormatter.YEARS;
+            case "MONTHS" -> DurationFormatter.MONTHS;
+            case "WEEKS" -> DurationFormatter.WEEKS;
+            case "DAYS" -> DurationFormatter.DAYS;
+            case "HOURS" -> DurationFormatter.HOURS;
+            case "MINUTES" -> DurationFormatter.MINUTES;
+            case "SECONDS" -> DurationFormatter.SECONDS;
+            default -> throw new IllegalArgumentException("unknown accuracy: " + accuracy);
+        };
+    }
+
+    @Benchmark
+    public String format() {
+        return formatter.format(duration);
+    }
+
+    @Benchmark
+    public StringBuilder formatReusingBuilder() {
+        builder.setLength(0);
+        return formatter.format(duration, builder);
+    }
+}
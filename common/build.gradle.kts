@@ -1,3 +1,7 @@
+plugins {
+    `java-test-fixtures`
+}
+
 dependencies {
     compileOnly(libs.miniplaceholders)
     compileOnly(libs.adventure.api)
@@ -5,4 +9,36 @@ dependencies {
     compileOnly(libs.adventure.legacy)
     compileOnly(libs.luckperms)
     compileOnly(libs.guava)
-}
\ No newline at end of file
+
+    testFixturesApi(libs.luckperms)
+    testFixturesApi(libs.adventure.api)
+
+    testImplementation(libs.miniplaceholders)
+    testImplementation(libs.adventure.minimessage)
+    testImplementation(libs.adventure.legacy)
+    testImplementation(libs.guava)
+    testImplementation(libs.junit.jupiter)
+    testRuntimeOnly(libs.junit.launcher)
+}
+
+tasks {
+    test {
+        useJUnitPlatform {
+            excludeTags("allocation")
+        }
+    }
+    val allocationTest = register<Test>("allocationTest") {
+        description = "Fails when a placeholder allocates more than its checked-in budget."
+        group = "verification"
+        testClassesDirs = sourceSets.test.get().output.classesDirs
+        classpath = sourceSets.test.get().runtimeClasspath
+        useJUnitPlatform {
+            includeTags("allocation")
+        }
+        // measured on its own JVM, not alongside the concurrent tests
+        shouldRunAfter(test)
+    }
+    check {
+        dependsOn(allocationTest)
+    }
+}
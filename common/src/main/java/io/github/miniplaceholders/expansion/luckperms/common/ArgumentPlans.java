@@ -0,0 +1,38 @@
+package io.github.miniplaceholders.expansion.luckperms.common;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Function;
+
+/**
+ * Bounded cache of the compiled form of the arguments of a placeholder, keyed by their raw values,
+ * so repeated identical tags skip their parsing and validation.
+ *
+ * <p>Plans are immutable and do not depend on the audience, so they are shared by every user.</p>
+ *
+ * @param <K> the type of the raw arguments
+ * @param <P> the type of the compiled plan
+ */
+final class ArgumentPlans<K, P> {
+    private static final int MAXIMUM_SIZE = 1_000;
+
+    private final Cache<K, P> plans = CacheBuilder.newBuilder()
+        .maximumSize(MAXIMUM_SIZE)
+        .build();
+    private final Function<K, P> compiler;
+
+    ArgumentPlans(final @NotNull Function<K, P> compiler) {
+        this.compiler = compiler;
+    }
+
+    @NotNull P get(final @NotNull K arguments) {
+        P plan = plans.getIfPresent(arguments);
+        if (plan == null) {
+            plan = compiler.apply(arguments);
+            plans.put(arguments, plan);
+        }
+        return plan;
+    }
+}
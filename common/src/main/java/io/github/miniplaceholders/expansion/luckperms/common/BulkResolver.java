@@ -0,0 +1,114 @@
+package io.github.miniplaceholders.expansion.luckperms.common;
+
+import io.github.miniplaceholders.api.Expansion;
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.identity.Identity;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Resolves a set of luckperms placeholders for many audiences at once, off the calling thread.
+ *
+ * <p>Audiences are split in batches resolved in parallel on the configured executor,
+ * which may be a {@link ForkJoinPool} or a virtual thread per task executor.</p>
+ */
+public final class BulkResolver {
+    public static final int DEFAULT_BATCH_SIZE = 32;
+
+    private final Expansion expansion;
+    private final Executor executor;
+    private final int batchSize;
+
+    /**
+     * Creates a bulk resolver running on the common {@link ForkJoinPool}.
+     *
+     * @param expansion the built luckperms expansion
+     */
+    public BulkResolver(final @NotNull Expansion expansion) {
+        this(expansion, ForkJoinPool.commonPool(), DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Creates a bulk resolver.
+     *
+     * @param expansion the built luckperms expansion
+     * @param executor the executor the batches are resolved on
+     * @param batchSize the maximum amount of audiences resolved by a single task
+     */
+    public BulkResolver(final @NotNull Expansion expansion, final @NotNull Executor executor, final int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batch size must be positive: " + batchSize);
+        }
+        this.expansion = expansion;
+        this.executor = executor;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Resolves the placeholders for every audience.
+     *
+     * <p>Placeholders are given without the expansion prefix nor brackets,
+     * for example {@code prefix} or {@code meta:rank-color}. A placeholder
+     * that cannot be resolved for an audience is left as literal text, as MiniMessage does.</p>
+     *
+     * @param audiences the audiences, those without an {@link Identity#UUID} are skipped
+     * @param placeholders the placeholders to resolve
+     * @return a future completed with the resolved components, by audience UUID and then by placeholder
+     */
+    public @NotNull CompletableFuture<Map<UUID, Map<String, Component>>> resolve(
+        final @NotNull Collection<? extends Audience> audiences,
+        final @NotNull Collection<String> placeholders
+    ) {
+        final List<String> keys = List.copyOf(new LinkedHashSet<>(placeholders));
+        final String[] inputs = new String[keys.size()];
+        for (int i = 0; i < inputs.length; i++) {
+            inputs[i] = '<' + CommonExpansion.NAME + '_' + keys.get(i) + '>';
+        }
+
+        final List<Audience> targets = List.copyOf(audiences);
+        final List<CompletableFuture<Map<UUID, Map<String, Component>>>> batches = new ArrayList<>();
+        for (int from = 0; from < targets.size(); from += batchSize) {
+            final List<Audience> batch = targets.subList(from, Math.min(from + batchSize, targets.size()));
+            batches.add(CompletableFuture.supplyAsync(() -> resolveBatch(batch, keys, inputs), executor));
+        }
+
+        return CompletableFuture.allOf(batches.toArray(CompletableFuture[]::new)).thenApply(ignored -> {
+            final Map<UUID, Map<String, Component>> results = new HashMap<>(targets.size());
+            for (final CompletableFuture<Map<UUID, Map<String, Component>>> batch : batches) {
+                results.putAll(batch.join());
+            }
+            return Map.copyOf(results);
+        });
+    }
+
+    private Map<UUID, Map<String, Component>> resolveBatch(final List<Audience> batch, final List<String> keys, final String[] inputs) {
+        final MiniMessage miniMessage = MiniMessage.miniMessage();
+        final TagResolver global = expansion.globalPlaceholders();
+        final Map<UUID, Map<String, Component>> results = new HashMap<>(batch.size());
+        for (final Audience audience : batch) {
+            final UUID uuid = audience.get(Identity.UUID).orElse(null);
+            if (uuid == null) continue;
+
+            final TagResolver resolver = TagResolver.resolver(expansion.audiencePlaceholders(audience), global);
+            final Map<String, Component> values = new HashMap<>(inputs.length);
+            for (int i = 0; i < inputs.length; i++) {
+                values.put(keys.get(i), miniMessage.deserialize(inputs[i], resolver));
+            }
+            results.put(uuid, Map.copyOf(values));
+        }
+        return results;
+    }
+}
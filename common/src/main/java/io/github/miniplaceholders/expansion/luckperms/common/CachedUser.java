@@ -0,0 +1,118 @@
+package io.github.miniplaceholders.expansion.luckperms.common;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.tag.Tag;
+import net.luckperms.api.LuckPerms;
+import net.luckperms.api.cacheddata.CachedMetaData;
+import net.luckperms.api.cacheddata.CachedPermissionData;
+import net.luckperms.api.model.user.User;
+import net.luckperms.api.query.QueryOptions;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Rendered values of a user, valid until the next data recalculation
+ */
+final class CachedUser {
+    private final User user;
+    private final QueryOptions queryOptions;
+    private final ComponentCache components;
+    private final long generation;
+    private final CachedMetaData metaData;
+    private final CachedPermissionData permissionData;
+    private final Component prefix;
+    private final Component suffix;
+    private final Tag primaryGroupName;
+    private volatile ExpiryIndex directExpiries;
+    private volatile ExpiryIndex inheritedExpiries;
+    private volatile InheritedGroups inheritedGroups;
+    private volatile PermissionIndex permissionIndex;
+    private volatile PrimaryGroupRank primaryGroupRank;
+
+    CachedUser(final @NotNull User user, final @NotNull QueryOptions queryOptions, final long generation, final @NotNull ComponentCache components) {
+        this.user = user;
+        this.queryOptions = queryOptions;
+        this.generation = generation;
+        this.components = components;
+
+        final CachedMetaData metaData = user.getCachedData().getMetaData(queryOptions);
+        this.metaData = metaData;
+        this.permissionData = user.getCachedData().getPermissionData(queryOptions);
+        this.prefix = components.legacy(metaData.getPrefix());
+        this.suffix = components.legacy(metaData.getSuffix());
+        final String primaryGroup = metaData.getPrimaryGroup();
+        this.primaryGroupName = primaryGroup == null ? null : Tag.preProcessParsed(primaryGroup);
+    }
+
+    boolean isValidFor(final @NotNull User user, final @NotNull QueryOptions queryOptions, final long generation) {
+        return this.user == user && this.generation == generation && this.queryOptions.equals(queryOptions);
+    }
+
+    @NotNull User user() {
+        return this.user;
+    }
+
+    @NotNull QueryOptions queryOptions() {
+        return this.queryOptions;
+    }
+
+    @NotNull CachedMetaData metaData() {
+        return this.metaData;
+    }
+
+    @NotNull CachedPermissionData permissionData() {
+        return this.permissionData;
+    }
+
+    @NotNull Component prefix() {
+        return this.prefix;
+    }
+
+    @NotNull Component suffix() {
+        return this.suffix;
+    }
+
+    @Nullable Tag primaryGroupName() {
+        return this.primaryGroupName;
+    }
+
+    @NotNull ExpiryIndex directExpiries() {
+        ExpiryIndex index = this.directExpiries;
+        if (index == null) {
+            this.directExpiries = index = ExpiryIndex.direct(user, queryOptions);
+        }
+        return index;
+    }
+
+    @NotNull ExpiryIndex inheritedExpiries() {
+        ExpiryIndex index = this.inheritedExpiries;
+        if (index == null) {
+            this.inheritedExpiries = index = ExpiryIndex.inherited(user, queryOptions);
+        }
+        return index;
+    }
+
+    @NotNull InheritedGroups inheritedGroups() {
+        InheritedGroups groups = this.inheritedGroups;
+        if (groups == null) {
+            this.inheritedGroups = groups = InheritedGroups.resolve(user, queryOptions, components);
+        }
+        return groups;
+    }
+
+    @NotNull PermissionIndex permissionIndex() {
+        PermissionIndex index = this.permissionIndex;
+        if (index == null) {
+            this.permissionIndex = index = PermissionIndex.build(permissionData);
+        }
+        return index;
+    }
+
+    @NotNull PrimaryGroupRank primaryGroupRank(final @NotNull LuckPerms luckPerms) {
+        PrimaryGroupRank rank = this.primaryGroupRank;
+        if (rank == null) {
+            this.primaryGroupRank = rank = PrimaryGroupRank.resolve(metaData.getPrimaryGroup(), luckPerms);
+        }
+        return rank;
+    }
+}
@@ -0,0 +1,241 @@
+package io.github.miniplaceholders.expansion.luckperms.common;
+
+import io.github.miniplaceholders.api.Expansion;
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.identity.Identity;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
+import net.luckperms.api.event.EventBus;
+import net.luckperms.api.event.context.ContextUpdateEvent;
+import net.luckperms.api.event.group.GroupCreateEvent;
+import net.luckperms.api.event.group.GroupDataRecalculateEvent;
+import net.luckperms.api.event.group.GroupDeleteEvent;
+import net.luckperms.api.event.node.NodeMutateEvent;
+import net.luckperms.api.event.track.TrackDeleteEvent;
+import net.luckperms.api.event.track.TrackLoadEvent;
+import net.luckperms.api.event.track.mutate.TrackMutateEvent;
+import net.luckperms.api.event.user.UserDataRecalculateEvent;
+import net.luckperms.api.model.user.User;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Notifies subscribers when the resolved value of a luckperms placeholder changes,
+ * so integrations such as scoreboards do not have to poll them.
+ *
+ * <p>Values are resolved again after the LuckPerms events that may change them,
+ * and when a time-dependent value such as an expiry countdown reaches its next visible change.
+ * Every resolution and listener call happens on a single background thread,
+ * so listeners of the same subscription are never called concurrently.</p>
+ */
+public final class ChangeNotifier {
+    private final CommonExpansion owner;
+    private final Expansion expansion;
+    private final MiniMessage miniMessage = MiniMessage.miniMessage();
+    private final ScheduledThreadPoolExecutor executor;
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, Set<Subscription>> byUser = new ConcurrentHashMap<>();
+
+    ChangeNotifier(final @NotNull CommonExpansion owner, final @NotNull Expansion expansion) {
+        this.owner = owner;
+        this.expansion = expansion;
+        this.executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            final Thread thread = new Thread(runnable, "LuckPerms-Expansion Change Notifier");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.setRemoveOnCancelPolicy(true);
+        // events keep coming after the shutdown
+        this.executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    /**
+     * Subscribes to the changes of a placeholder for an audience.
+     *
+     * <p>The placeholder is given without the expansion prefix nor brackets and with its
+     * arguments separated by colons, for example {@code prefix} or {@code meta:rank-color}.
+     * The listener is not called with the initial value, which is available through
+     * {@link Subscription#value()} once {@link Subscription#isReady()} is true.</p>
+     *
+     * @param audience the audience to resolve the placeholder for
+     * @param placeholder the placeholder and its arguments
+     * @param listener called on the notifier thread with every new value
+     * @return the subscription, to be cancelled when no longer needed
+     */
+    public @NotNull Subscription subscribe(
+        final @NotNull Audience audience,
+        final @NotNull String placeholder,
+        final @NotNull Consumer<? super Component> listener
+    ) {
+        final Subscription subscription = new Subscription(
+            audience.get(Identity.UUID).orElse(null),
+            '<' + CommonExpansion.NAME + '_' + placeholder + '>',
+            TagResolver.resolver(expansion.audiencePlaceholders(audience), expansion.globalPlaceholders()),
+            listener
+        );
+        subscriptions.add(subscription);
+        if (subscription.uuid != null) {
+            byUser.compute(subscription.uuid, (uuid, set) -> {
+                final Set<Subscription> subscriptions = set == null ? ConcurrentHashMap.newKeySet() : set;
+                subscriptions.add(subscription);
+                return subscriptions;
+            });
+        }
+        executor.execute(() -> refresh(subscription));
+        return subscription;
+    }
+
+    void subscribe(final @NotNull Object plugin, final @NotNull EventBus eventBus) {
+        // handlers only schedule the refresh, so the cache invalidations
+        // subscribed before them always run first
+        eventBus.subscribe(plugin, UserDataRecalculateEvent.class, event -> refreshUser(event.getUser().getUniqueId()));
+        eventBus.subscribe(plugin, GroupDataRecalculateEvent.class, event -> refreshAll());
+        eventBus.subscribe(plugin, GroupCreateEvent.class, event -> refreshAll());
+        eventBus.subscribe(plugin, GroupDeleteEvent.class, event -> refreshAll());
+        eventBus.subscribe(plugin, TrackLoadEvent.class, event -> refreshAll());
+        eventBus.subscribe(plugin, TrackDeleteEvent.class, event -> refreshAll());
+        eventBus.subscribe(plugin, TrackMutateEvent.class, event -> refreshAll());
+        eventBus.subscribe(plugin, NodeMutateEvent.class, event -> {
+            if (event.getTarget() instanceof User user) {
+                refreshUser(user.getUniqueId());
+            } else {
+                refreshAll();
+            }
+        });
+        eventBus.subscribe(plugin, ContextUpdateEvent.class, event -> {
+            if (event.getSubject() instanceof Audience audience) {
+                audience.get(Identity.UUID).ifPresent(this::refreshUser);
+            }
+        });
+    }
+
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void refreshUser(final UUID uuid) {
+        final Set<Subscription> subscriptions = byUser.get(uuid);
+        if (subscriptions != null && !subscriptions.isEmpty()) {
+            executor.execute(() -> subscriptions.forEach(this::refresh));
+        }
+    }
+
+    private void refreshAll() {
+        if (!subscriptions.isEmpty()) {
+            executor.execute(() -> subscriptions.forEach(this::refresh));
+        }
+    }
+
+    private void refresh(final Subscription subscription) {
+        if (!subscription.active) return;
+
+        owner.takeRenderDeadline();
+        final Component value = miniMessage.deserialize(subscription.input, subscription.resolver);
+        final long deadline = owner.takeRenderDeadline();
+
+        if (subscription.deadline != deadline) {
+            subscription.deadline = deadline;
+            if (subscription.scheduled != null) {
+                subscription.scheduled.cancel(false);
+                subscription.scheduled = null;
+            }
+            if (deadline != Long.MAX_VALUE) {
+                final long delay = Math.max(0, deadline + 1 - System.currentTimeMillis());
+                subscription.scheduled = executor.schedule(() -> {
+                    subscription.scheduled = null;
+                    subscription.deadline = Long.MAX_VALUE;
+                    refresh(subscription);
+                }, delay, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        final Component previous = subscription.value;
+        subscription.value = value;
+        if (previous != null && !previous.equals(value)) {
+            try {
+                subscription.listener.accept(value);
+            } catch (final RuntimeException e) {
+                final Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+        }
+    }
+
+    /**
+     * Subscription to the changes of a placeholder, created by {@link #subscribe(Audience, String, Consumer)}
+     */
+    public final class Subscription {
+        private final @Nullable UUID uuid;
+        private final String input;
+        private final TagResolver resolver;
+        private final Consumer<? super Component> listener;
+        private volatile Component value;
+        private volatile boolean active = true;
+        // only accessed from the notifier thread
+        private long deadline = Long.MAX_VALUE;
+        private ScheduledFuture<?> scheduled;
+
+        private Subscription(
+            final @Nullable UUID uuid,
+            final String input,
+            final TagResolver resolver,
+            final Consumer<? super Component> listener
+        ) {
+            this.uuid = uuid;
+            this.input = input;
+            this.resolver = resolver;
+            this.listener = listener;
+        }
+
+        /**
+         * Whether the initial value has been resolved.
+         */
+        public boolean isReady() {
+            return this.value != null;
+        }
+
+        /**
+         * Gets the last resolved value.
+         *
+         * @return the value, or null until the initial value is resolved
+         */
+        public @Nullable Component value() {
+            return this.value;
+        }
+
+        public boolean isActive() {
+            return this.active;
+        }
+
+        /**
+         * Stops the notifications of this subscription.
+         */
+        public void cancel() {
+            this.active = false;
+            subscriptions.remove(this);
+            if (uuid != null) {
+                byUser.computeIfPresent(uuid, (key, set) -> {
+                    set.remove(this);
+                    return set.isEmpty() ? null : set;
+                });
+            }
+            executor.execute(() -> {
+                if (scheduled != null) {
+                    scheduled.cancel(false);
+                    scheduled = null;
+                }
+            });
+        }
+    }
+}
@@ -6,216 +6,415 @@ import net.kyori.adventure.identity.Identity;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.minimessage.Context;
+import net.kyori.adventure.text.minimessage.MiniMessage;
 import net.kyori.adventure.text.minimessage.tag.Tag;
 import net.kyori.adventure.text.minimessage.tag.resolver.ArgumentQueue;
 import net.luckperms.api.LuckPerms;
-import net.luckperms.api.model.group.Group;
+import net.luckperms.api.cacheddata.CachedPermissionData;
 import net.luckperms.api.model.user.User;
-import net.luckperms.api.node.Node;
-import net.luckperms.api.node.NodeType;
-import net.luckperms.api.query.QueryOptions;
 import net.luckperms.api.util.Tristate;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.time.Duration;
-import java.util.Objects;
+import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static io.github.miniplaceholders.api.utils.Components.FALSE_COMPONENT;
 import static io.github.miniplaceholders.api.utils.Components.TRUE_COMPONENT;
-import static io.github.miniplaceholders.api.utils.LegacyUtils.parsePossibleLegacy;
 
-public record CommonExpansion(LuckPerms luckPerms) {
+public final class CommonExpansion {
+    public static final String NAME = "luckperms";
     private static final Component UNDEFINED_COMPONENT = Component.text("undefined", NamedTextColor.GRAY);
+    private final LuckPerms luckPerms;
+    private final ComponentCache componentCache = new ComponentCache();
+    private final UserCache userCache = new UserCache(componentCache);
+    private final GlobalCache globalCache;
+    private final ContextCache contextCache;
+    private final @Nullable UserLoader userLoader;
+    private final @Nullable Tag loadingFallback;
+    private final Prewarmer prewarmer = new Prewarmer(this::warm);
+    private final List<ChangeNotifier> changeNotifiers = new CopyOnWriteArrayList<>();
+    private final ArgumentPlans<String, PermissionIndex.Prefix> prefixPlans = new ArgumentPlans<>(PermissionIndex.Prefix::new);
+    private final ArgumentPlans<String, String> groupPlans = new ArgumentPlans<>(group -> group.toLowerCase(Locale.ROOT));
+    private final ArgumentPlans<ExpiryIndex.Arguments, ExpiryIndex.Query> nodeExpiryPlans =
+        new ArgumentPlans<>(arguments -> ExpiryIndex.Query.compile(false, arguments));
+    private final ArgumentPlans<ExpiryIndex.Arguments, ExpiryIndex.Query> groupExpiryPlans =
+        new ArgumentPlans<>(arguments -> ExpiryIndex.Query.compile(true, arguments));
+    private final PlaceholderMetrics metrics = new PlaceholderMetrics();
+    private final ThreadLocal<RenderScope> renderScope = ThreadLocal.withInitial(RenderScope::new);
+
+    public CommonExpansion(final LuckPerms luckPerms) {
+        this(luckPerms, Settings.DEFAULTS);
+    }
+
+    public CommonExpansion(final LuckPerms luckPerms, final Settings settings) {
+        this.luckPerms = luckPerms;
+        this.globalCache = new GlobalCache(luckPerms, componentCache);
+        this.contextCache = new ContextCache(luckPerms.getContextManager(), settings.contextMaxStaleness());
+        this.userLoader = settings.loadUsers()
+            ? new UserLoader(luckPerms.getUserManager(), settings.loadedUsersMaximumSize(), settings.loadedUsersExpiry(), this::evict)
+            : null;
+        this.loadingFallback = settings.loadUsers() && !settings.loadingFallback().isEmpty()
+            ? Tag.selfClosingInserting(MiniMessage.miniMessage().deserialize(settings.loadingFallback()))
+            : null;
+    }
+
+    public LuckPerms luckPerms() {
+        return this.luckPerms;
+    }
+
+    public PlaceholderMetrics metrics() {
+        return this.metrics;
+    }
+
+    /**
+     * Subscribes the caches of this expansion to the LuckPerms events that invalidate them.
+     *
+     * @param plugin the plugin instance owning the subscriptions
+     */
+    public void registerListeners(final Object plugin) {
+        this.userCache.subscribe(plugin, luckPerms.getEventBus());
+        this.globalCache.subscribe(plugin, luckPerms.getEventBus());
+        this.contextCache.subscribe(plugin, luckPerms.getEventBus());
+    }
+
+    /**
+     * Refreshes the cached contexts of a player, for platform changes such as
+     * a world or server switch that may not be signalled through LuckPerms.
+     *
+     * @param uuid the uuid of the player
+     */
+    public void invalidateContext(final UUID uuid) {
+        this.contextCache.invalidate(uuid);
+    }
+
+    /**
+     * Asynchronously precomputes the data behind the placeholders of a player,
+     * so their first render does not pay for it.
+     *
+     * @param uuid the uuid of the player, which should already be loaded by LuckPerms
+     */
+    public void prewarm(final UUID uuid) {
+        this.prewarmer.submit(uuid);
+    }
+
+    /**
+     * Stops the background tasks of this expansion.
+     */
+    public void shutdown() {
+        this.prewarmer.shutdown();
+        this.changeNotifiers.forEach(ChangeNotifier::shutdown);
+    }
+
+    /**
+     * Creates a notifier of the value changes of the placeholders of the given built expansion.
+     *
+     * <p>Must be called after {@link #registerListeners(Object)}, so the caches of this
+     * expansion are invalidated before values are resolved again.</p>
+     *
+     * @param plugin the plugin instance owning the subscriptions
+     * @param expansion the expansion built from {@link #commonBuilder()}
+     * @return the change notifier
+     */
+    public ChangeNotifier changeNotifier(final Object plugin, final Expansion expansion) {
+        final ChangeNotifier notifier = new ChangeNotifier(this, expansion);
+        notifier.subscribe(plugin, luckPerms.getEventBus());
+        this.changeNotifiers.add(notifier);
+        return notifier;
+    }
 
     public Expansion.Builder commonBuilder() {
-        return Expansion.builder("luckperms")
-            .audiencePlaceholder("prefix", (aud, queue, ctx) -> {
-                final User user = user(aud);
-                if (user == null) return null;
-
-                Component content = parsePossibleLegacy(user.getCachedData().getMetaData().getPrefix());
-                return optionalSelfClosing(aud, queue, ctx, content);
-            })
-            .audiencePlaceholder("suffix", (aud, queue, ctx) -> {
-                final User user = user(aud);
-                if (user == null) return null;
-
-                Component content = parsePossibleLegacy(user.getCachedData().getMetaData().getSuffix());
-                return optionalSelfClosing(aud, queue, ctx, content);
-            })
-            .audiencePlaceholder("has_permission", (aud, queue, ctx) -> {
-                final User user = user(aud);
-                if (user == null) return null;
-
-                String permission = queue.popOr(() -> "you need to introduce an permission").value();
-                Tristate result = user.getCachedData().getPermissionData().checkPermission(permission);
-                return Tag.selfClosingInserting(result.asBoolean()
-                    ? TRUE_COMPONENT
-                    : FALSE_COMPONENT
-                );
-            })
-            .audiencePlaceholder("check_permission", (aud, queue, ctx) -> {
-                final User user = user(aud);
-                if (user == null) return null;
-
-                final String permission = queue.popOr(() -> "you need to introduce an permission").value();
-                final Tristate result = user.getCachedData().getPermissionData().checkPermission(permission);
-                return Tag.selfClosingInserting(switch (result) {
-                    case TRUE -> TRUE_COMPONENT;
-                    case FALSE -> FALSE_COMPONENT;
-                    case UNDEFINED -> UNDEFINED_COMPONENT;
-                });
-            })
-            .audiencePlaceholder("inherited_groups", (aud, queue, ctx) -> {
-                final User user = user(aud);
-                if (user == null) return null;
-
-                final Component groups = user.getInheritedGroups(user.getQueryOptions()).stream()
-                    .map(group -> parsePossibleLegacy(group.getDisplayName()))
-                    .collect(Component.toComponent(Component.text(", ")));
-                return Tag.selfClosingInserting(groups);
-            })
-            .audiencePlaceholder("primary_group_name", (aud, queue, ctx) -> {
-                final User user = user(aud);
-                if (user == null) return null;
-
-                final String primaryGroup = user.getCachedData().getMetaData().getPrimaryGroup();
-                if (primaryGroup == null) return null;
-
-                return Tag.preProcessParsed(primaryGroup);
-            })
-            .audiencePlaceholder("inherits_group", (aud, queue, ctx) -> {
-                final User user = user(aud);
-                if (user == null) return null;
-
-                Group group = luckPerms.getGroupManager().getGroup(queue.popOr("you need to provide a group").value());
-                return Tag.selfClosingInserting(group != null && user.getInheritedGroups(user.getQueryOptions()).contains(group)
-                    ? TRUE_COMPONENT
-                    : FALSE_COMPONENT
-                );
-            })
-            .audiencePlaceholder("meta", (aud, queue, ctx) -> {
-                final User user = user(aud);
-                if (user == null) return null;
-
-                String value = user.getCachedData().getMetaData().getMetaValue(queue.popOr("you need to provide a metadata key").value());
-                if (value == null) return null;
-
-                Component content = ctx.deserialize(value);
-                return optionalSelfClosing(aud, queue, ctx, content);
-            })
-            .audiencePlaceholder("context", (aud, queue, ctx) -> {
-                final User user = user(aud);
-                if (user == null) return null;
-
-                String value = luckPerms.getContextManager()
-                    .getContext(user)
-                    .orElseGet(() -> luckPerms.getContextManager().getStaticContext()) // fallback to static context
-                    .getAnyValue(queue.popOr("you need to provide a context key").value())
-                    .orElse(null);
-                if (value == null) return null;
-
-                Component content = ctx.deserialize(value);
-                return optionalSelfClosing(aud, queue, ctx, content);
-            })
-            .audiencePlaceholder("static_context", (aud, queue, ctx) -> {
-                final User user = user(aud);
-                if (user == null) return null;
-
-                String value = luckPerms.getContextManager()
-                    .getStaticContext()
-                    .getAnyValue(queue.popOr("you need to provide a context key").value())
-                    .orElse(null);
-                if (value == null) return null;
-
-                Component content = ctx.deserialize(value);
-                return optionalSelfClosing(aud, queue, ctx, content);
-            })
-            .audiencePlaceholder("expiry_time", (aud, queue, ctx) -> {
-                final User user = user(aud);
-                if (user == null) return null;
-
-                String node = queue.popOr("you need to provide a node").value();
-                String accuracy = queue.popOr("you need to provide a unit").value();
-                QueryOptions queryOptions = user.getQueryOptions();
-                String value = user.getNodes().stream()
-                    .filter(Node::hasExpiry)
-                    .filter(n -> n.getKey().equals(node))
-                    .filter(n -> queryOptions.satisfies(n.getContexts()))
-                    .map(Node::getExpiryDuration)
-                    .filter(Objects::nonNull)
-                    .filter(d -> !d.isNegative())
-                    .findFirst()
-                    .map(duration -> formatDuration(duration, accuracy))
-                    .orElse(null);
-                if (value == null) return null;
-
-                return Tag.preProcessParsed(value);
-            })
-            .audiencePlaceholder("inherited_expiry_time", (aud, queue, ctx) -> {
-                final User user = user(aud);
-                if (user == null) return null;
-
-                String node = queue.popOr("you need to provide a node").value();
-                String accuracy = queue.popOr("you need to provide a unit").value();
-                QueryOptions queryOptions = user.getQueryOptions();
-                String value = user.resolveInheritedNodes(queryOptions).stream()
-                    .filter(Node::hasExpiry)
-                    .filter(n -> n.getKey().equals(node))
-                    .map(Node::getExpiryDuration)
-                    .filter(Objects::nonNull)
-                    .filter(d -> !d.isNegative())
-                    .findFirst()
-                    .map(duration -> formatDuration(duration, accuracy))
-                    .orElse(null);
-                if (value == null) return null;
-
-                return Tag.preProcessParsed(value);
-            })
-            .audiencePlaceholder("group_expiry_time", (aud, queue, ctx) -> {
-                final User user = user(aud);
-                if (user == null) return null;
-
-                String group = queue.popOr("you need to provide a group").value();
-                String accuracy = queue.popOr("you need to provide a unit").value();
-                QueryOptions queryOptions = user.getQueryOptions();
-                String value = user.getNodes(NodeType.INHERITANCE).stream()
-                    .filter(Node::hasExpiry)
-                    .filter(n -> n.getGroupName().equals(group))
-                    .filter(n -> queryOptions.satisfies(n.getContexts()))
-                    .map(Node::getExpiryDuration)
-                    .filter(Objects::nonNull)
-                    .filter(d -> !d.isNegative())
-                    .findFirst()
-                    .map(duration -> formatDuration(duration, accuracy))
-                    .orElse(null);
-                if (value == null) return null;
-
-                return Tag.preProcessParsed(value);
-            })
-            .audiencePlaceholder("inherited_group_expiry_time", (aud, queue, ctx) -> {
-                final User user = user(aud);
-                if (user == null) return null;
-
-                String group = queue.popOr("you need to provide a group").value();
-                String accuracy = queue.popOr("you need to provide a unit").value();
-                QueryOptions queryOptions = user.getQueryOptions();
-                String value = user.resolveInheritedNodes(queryOptions).stream()
-                    .filter(Node::hasExpiry)
-                    .filter(NodeType.INHERITANCE::matches)
-                    .map(NodeType.INHERITANCE::cast)
-                    .filter(n -> n.getGroupName().equals(group))
-                    .map(Node::getExpiryDuration)
-                    .filter(Objects::nonNull)
-                    .filter(d -> !d.isNegative())
-                    .findFirst()
-                    .map(duration -> formatDuration(duration, accuracy))
-                    .orElse(null);
-                if (value == null) return null;
-
-                return Tag.preProcessParsed(value);
+        final Expansion.Builder builder = Expansion.builder(NAME);
+
+        audiencePlaceholder(builder, "prefix", (aud, queue, ctx) -> {
+            final CachedUser cached = cachedUser(aud, ctx);
+            if (cached == null) return null;
+
+            return optionalSelfClosing(aud, queue, ctx, cached.prefix());
+        });
+
+        audiencePlaceholder(builder, "suffix", (aud, queue, ctx) -> {
+            final CachedUser cached = cachedUser(aud, ctx);
+            if (cached == null) return null;
+
+            return optionalSelfClosing(aud, queue, ctx, cached.suffix());
+        });
+
+        audiencePlaceholder(builder, "has_permission", (aud, queue, ctx) -> {
+            final CachedUser cached = cachedUser(aud, ctx);
+            if (cached == null) return null;
+
+            String permission = queue.popOr(() -> "you need to introduce an permission").value();
+            Tristate result = cached.permissionData().checkPermission(permission);
+            return Tag.selfClosingInserting(result.asBoolean()
+                ? TRUE_COMPONENT
+                : FALSE_COMPONENT
+            );
+        });
+
+        audiencePlaceholder(builder, "check_permission", (aud, queue, ctx) -> {
+            final CachedUser cached = cachedUser(aud, ctx);
+            if (cached == null) return null;
+
+            final String permission = queue.popOr(() -> "you need to introduce an permission").value();
+            final Tristate result = cached.permissionData().checkPermission(permission);
+            return Tag.selfClosingInserting(switch (result) {
+                case TRUE -> TRUE_COMPONENT;
+                case FALSE -> FALSE_COMPONENT;
+                case UNDEFINED -> UNDEFINED_COMPONENT;
             });
+        });
+
+        audiencePlaceholder(builder, "has_any_permission", (aud, queue, ctx) -> {
+            final CachedUser cached = cachedUser(aud, ctx);
+            if (cached == null) return null;
+
+            final CachedPermissionData permissions = cached.permissionData();
+            boolean result = permissions.checkPermission(queue.popOr(() -> "you need to introduce a permission").value()).asBoolean();
+            while (!result && queue.hasNext()) {
+                result = permissions.checkPermission(queue.pop().value()).asBoolean();
+            }
+            return Tag.selfClosingInserting(result ? TRUE_COMPONENT : FALSE_COMPONENT);
+        });
+
+        audiencePlaceholder(builder, "has_all_permissions", (aud, queue, ctx) -> {
+            final CachedUser cached = cachedUser(aud, ctx);
+            if (cached == null) return null;
+
+            final CachedPermissionData permissions = cached.permissionData();
+            boolean result = permissions.checkPermission(queue.popOr(() -> "you need to introduce a permission").value()).asBoolean();
+            while (result && queue.hasNext()) {
+                result = permissions.checkPermission(queue.pop().value()).asBoolean();
+            }
+            return Tag.selfClosingInserting(result ? TRUE_COMPONENT : FALSE_COMPONENT);
+        });
+
+        audiencePlaceholder(builder, "count_permissions", (aud, queue, ctx) -> {
+            final CachedUser cached = cachedUser(aud, ctx);
+            if (cached == null) return null;
+
+            final PermissionIndex.Prefix prefix = prefixPlans.get(queue.popOr(() -> "you need to introduce a permission prefix").value());
+            return Tag.preProcessParsed(Integer.toString(cached.permissionIndex().countGranted(prefix)));
+        });
+
+        audiencePlaceholder(builder, "inherited_groups", (aud, queue, ctx) -> {
+            final CachedUser cached = cachedUser(aud, ctx);
+            if (cached == null) return null;
+
+            return Tag.selfClosingInserting(cached.inheritedGroups().rendered());
+        });
+
+        audiencePlaceholder(builder, "primary_group_name", (aud, queue, ctx) -> {
+            final CachedUser cached = cachedUser(aud, ctx);
+            if (cached == null) return null;
+
+            return cached.primaryGroupName();
+        });
+
+        audiencePlaceholder(builder, "primary_group_weight", (aud, queue, ctx) -> {
+            final CachedUser cached = cachedUser(aud, ctx);
+            if (cached == null) return null;
+
+            return cached.primaryGroupRank(luckPerms).weight();
+        });
+
+        audiencePlaceholder(builder, "sort_key", (aud, queue, ctx) -> {
+            final CachedUser cached = cachedUser(aud, ctx);
+            if (cached == null) return null;
+
+            return cached.primaryGroupRank(luckPerms).sortKey();
+        });
+
+        audiencePlaceholder(builder, "inherits_group", (aud, queue, ctx) -> {
+            final CachedUser cached = cachedUser(aud, ctx);
+            if (cached == null) return null;
+
+            String group = groupPlans.get(queue.popOr("you need to provide a group").value());
+            return Tag.selfClosingInserting(cached.inheritedGroups().contains(group)
+                ? TRUE_COMPONENT
+                : FALSE_COMPONENT
+            );
+        });
+
+        audiencePlaceholder(builder, "meta", (aud, queue, ctx) -> {
+            final CachedUser cached = cachedUser(aud, ctx);
+            if (cached == null) return null;
+
+            String value = cached.metaData().getMetaValue(queue.popOr("you need to provide a metadata key").value());
+            if (value == null) return null;
+
+            Component content = ctx.deserialize(value);
+            return optionalSelfClosing(aud, queue, ctx, content);
+        });
+
+        audiencePlaceholder(builder, "context", (aud, queue, ctx) -> {
+            final CachedUser cached = cachedUser(aud, ctx);
+            if (cached == null) return null;
+
+            String value = contextCache.get(cached.user())
+                .getAnyValue(queue.popOr("you need to provide a context key").value())
+                .orElse(null);
+            if (value == null) return null;
+
+            Component content = ctx.deserialize(value);
+            return optionalSelfClosing(aud, queue, ctx, content);
+        });
+
+        audiencePlaceholder(builder, "static_context", (aud, queue, ctx) -> {
+            String value = globalCache.get().staticContext()
+                .getAnyValue(queue.popOr("you need to provide a context key").value())
+                .orElse(null);
+            if (value == null) return null;
+
+            Component content = ctx.deserialize(value);
+            return optionalSelfClosing(aud, queue, ctx, content);
+        });
+
+        audiencePlaceholder(builder, "expiry_time", (aud, queue, ctx) -> {
+            final CachedUser cached = cachedUser(aud, ctx);
+            if (cached == null) return null;
+
+            final ExpiryIndex.Query query = nodeExpiryPlans.get(new ExpiryIndex.Arguments(
+                queue.popOr("you need to provide a node").value(),
+                queue.popOr("you need to provide a unit").value()
+            ));
+            return countdown(cached.directExpiries().countdown(query));
+        });
+
+        audiencePlaceholder(builder, "inherited_expiry_time", (aud, queue, ctx) -> {
+            final CachedUser cached = cachedUser(aud, ctx);
+            if (cached == null) return null;
+
+            final ExpiryIndex.Query query = nodeExpiryPlans.get(new ExpiryIndex.Arguments(
+                queue.popOr("you need to provide a node").value(),
+                queue.popOr("you need to provide a unit").value()
+            ));
+            return countdown(cached.inheritedExpiries().countdown(query));
+        });
+
+        audiencePlaceholder(builder, "group_expiry_time", (aud, queue, ctx) -> {
+            final CachedUser cached = cachedUser(aud, ctx);
+            if (cached == null) return null;
+
+            final ExpiryIndex.Query query = groupExpiryPlans.get(new ExpiryIndex.Arguments(
+                queue.popOr("you need to provide a group").value(),
+                queue.popOr("you need to provide a unit").value()
+            ));
+            return countdown(cached.directExpiries().countdown(query));
+        });
+
+        audiencePlaceholder(builder, "inherited_group_expiry_time", (aud, queue, ctx) -> {
+            final CachedUser cached = cachedUser(aud, ctx);
+            if (cached == null) return null;
+
+            final ExpiryIndex.Query query = groupExpiryPlans.get(new ExpiryIndex.Arguments(
+                queue.popOr("you need to provide a group").value(),
+                queue.popOr("you need to provide a unit").value()
+            ));
+            return countdown(cached.inheritedExpiries().countdown(query));
+        });
+
+        globalPlaceholder(builder, "global_static_context", (queue, ctx) -> {
+            String value = globalCache.get().staticContext()
+                .getAnyValue(queue.popOr("you need to provide a context key").value())
+                .orElse(null);
+            if (value == null) return null;
+
+            Component content = ctx.deserialize(value);
+            return optionalSelfClosing(queue, content);
+        });
+
+        globalPlaceholder(builder, "group_prefix", (queue, ctx) -> {
+            final GlobalSnapshot.GroupData group = globalCache.get().group(groupPlans.get(queue.popOr("you need to provide a group").value()));
+            if (group == null) return null;
+
+            return optionalSelfClosing(queue, group.prefix());
+        });
+
+        globalPlaceholder(builder, "group_suffix", (queue, ctx) -> {
+            final GlobalSnapshot.GroupData group = globalCache.get().group(groupPlans.get(queue.popOr("you need to provide a group").value()));
+            if (group == null) return null;
+
+            return optionalSelfClosing(queue, group.suffix());
+        });
+
+        globalPlaceholder(builder, "group_display_name", (queue, ctx) -> {
+            final GlobalSnapshot.GroupData group = globalCache.get().group(groupPlans.get(queue.popOr("you need to provide a group").value()));
+            if (group == null) return null;
+
+            return Tag.selfClosingInserting(group.displayName());
+        });
+
+        globalPlaceholder(builder, "group_weight", (queue, ctx) -> {
+            final GlobalSnapshot.GroupData group = globalCache.get().group(groupPlans.get(queue.popOr("you need to provide a group").value()));
+            if (group == null) return null;
+
+            return group.weight();
+        });
+
+        globalPlaceholder(builder, "loaded_groups", (queue, ctx) -> Tag.selfClosingInserting(globalCache.get().loadedGroups()));
+
+        return builder;
+    }
+
+    private void warm(final UUID uuid) {
+        final User user = luckPerms.getUserManager().getUser(uuid);
+        if (user == null) return;
+
+        final CachedUser cached = userCache.get(user);
+        cached.directExpiries();
+        cached.inheritedExpiries();
+        cached.inheritedGroups();
+        cached.primaryGroupRank(luckPerms);
+        globalCache.get();
+    }
+
+    /**
+     * Registers an audience placeholder, recording its metrics while they are enabled.
+     */
+    private void audiencePlaceholder(final Expansion.Builder builder, final String name, final Resolver resolver) {
+        final PlaceholderMetrics.Recorder recorder = metrics.recorder(name);
+        final Resolver fallible = loadingFallback == null ? resolver : (aud, queue, ctx) -> {
+            final Tag tag = resolver.tag(aud, queue, ctx);
+            return tag == null && isLoading(aud) ? loadingFallback : tag;
+        };
+        builder.audiencePlaceholder(name, (aud, queue, ctx) -> {
+            if (!metrics.isEnabled()) {
+                return fallible.tag(aud, queue, ctx);
+            }
+            final long start = System.nanoTime();
+            final Tag tag = fallible.tag(aud, queue, ctx);
+            recorder.record(System.nanoTime() - start, tag == null);
+            return tag;
+        });
+    }
+
+    /**
+     * Registers a global placeholder, recording its metrics while they are enabled.
+     */
+    private void globalPlaceholder(final Expansion.Builder builder, final String name, final GlobalResolver resolver) {
+        final PlaceholderMetrics.Recorder recorder = metrics.recorder(name);
+        builder.globalPlaceholder(name, (queue, ctx) -> {
+            if (!metrics.isEnabled()) {
+                return resolver.tag(queue, ctx);
+            }
+            final long start = System.nanoTime();
+            final Tag tag = resolver.tag(queue, ctx);
+            recorder.record(System.nanoTime() - start, tag == null);
+            return tag;
+        });
+    }
+
+    @FunctionalInterface
+    private interface Resolver {
+        @Nullable Tag tag(Audience audience, ArgumentQueue queue, Context context);
+    }
+
+    @FunctionalInterface
+    private interface GlobalResolver {
+        @Nullable Tag tag(ArgumentQueue queue, Context context);
     }
 
     private User user(final Audience audience) {
@@ -223,36 +422,74 @@ public record CommonExpansion(LuckPerms luckPerms) {
         if (uuid == null) {
             return null;
         }
-        return luckPerms.getUserManager().getUser(uuid);
+        final User user = luckPerms.getUserManager().getUser(uuid);
+        if (user != null || userLoader == null) {
+            return user;
+        }
+        return userLoader.get(uuid);
+    }
+
+    /**
+     * Drops what the caches hold about a user the loader stopped holding,
+     * as no unload event follows for data built from it after LuckPerms unloaded it.
+     */
+    private void evict(final UUID uuid) {
+        if (luckPerms.getUserManager().getUser(uuid) == null) {
+            userCache.remove(uuid);
+            contextCache.remove(uuid);
+        }
+    }
+
+    private boolean isLoading(final Audience audience) {
+        final UUID uuid = audience.get(Identity.UUID).orElse(null);
+        return uuid != null && userLoader != null && userLoader.isLoading(uuid);
+    }
+
+    /**
+     * Gets the cached data of the user of the audience,
+     * resolved only once per MiniMessage deserialization.
+     */
+    private CachedUser cachedUser(final Audience audience, final Context context) {
+        final RenderScope scope = renderScope.get();
+        if (scope.matches(context, audience)) {
+            return scope.user();
+        }
+        final User user = user(audience);
+        final CachedUser cached = user == null ? null : userCache.get(user);
+        scope.set(context, audience, cached);
+        return cached;
+    }
+
+    private @Nullable Tag countdown(final ExpiryIndex.@Nullable Countdown countdown) {
+        if (countdown == null) return null;
+
+        renderScope.get().expiresAt(countdown.deadline());
+        return countdown.tag();
+    }
+
+    /**
+     * Gets the last epoch millisecond at which the values rendered by the current thread
+     * since the last call are accurate, or {@link Long#MAX_VALUE} if they do not depend on time.
+     */
+    long takeRenderDeadline() {
+        return renderScope.get().takeDeadline();
     }
 
     /**
      * This should be used at last as it reads the queue.
      */
     private @NotNull Tag optionalSelfClosing(Audience audience, ArgumentQueue queue, Context context, Component content) {
+        return optionalSelfClosing(queue, content);
+    }
+
+    /**
+     * This should be used at last as it reads the queue.
+     */
+    private @NotNull Tag optionalSelfClosing(ArgumentQueue queue, Component content) {
         Tag.Argument peek = queue.peek();
         if (peek != null && peek.value().equals("close")) {
             return Tag.selfClosingInserting(content);
         }
         return Tag.inserting(content);
     }
-
-    /**
-     * Format a duration using the LuckPerms formatter.
-     *
-     * @param duration the duration
-     * @return a formatted version of the duration
-     */
-    private @NotNull String formatDuration(final @NotNull Duration duration, String accuracy) {
-        return switch (accuracy) {
-            case "y" -> DurationFormatter.YEARS.format(duration);
-            case "mo" -> DurationFormatter.MONTHS.format(duration);
-            case "w" -> DurationFormatter.WEEKS.format(duration);
-            case "d" -> DurationFormatter.DAYS.format(duration);
-            case "h" -> DurationFormatter.HOURS.format(duration);
-            case "m" -> DurationFormatter.MINUTES.format(duration);
-            case "s" -> DurationFormatter.SECONDS.format(duration);
-            default -> throw new IllegalArgumentException("unknown argument: " + accuracy);
-        };
-    }
 }
@@ -0,0 +1,46 @@
+package io.github.miniplaceholders.expansion.luckperms.common;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import static io.github.miniplaceholders.api.utils.LegacyUtils.parsePossibleLegacy;
+
+/**
+ * Shared cache of components parsed from legacy formatted values, keyed by their raw value.
+ *
+ * <p>Users sharing a group get the same immutable {@link Component} instance for the same prefix,
+ * suffix or group display name. The cache is bounded and weak-valued, so an entry lives
+ * as long as something else, such as a {@link CachedUser} or the {@link GlobalSnapshot}, holds its component.</p>
+ *
+ * <p>MiniMessage values are not cached, as their result depends on the MiniMessage instance
+ * and the resolvers of each deserialization.</p>
+ */
+final class ComponentCache {
+    private static final int MAXIMUM_SIZE = 10_000;
+    // Writes lock a single segment, so allow as many concurrent writers as there are cores
+    private static final int CONCURRENCY_LEVEL = Math.max(4, Runtime.getRuntime().availableProcessors());
+
+    private final Cache<String, Component> legacy = CacheBuilder.newBuilder()
+        .maximumSize(MAXIMUM_SIZE)
+        .concurrencyLevel(CONCURRENCY_LEVEL)
+        .weakValues()
+        .build();
+
+    /**
+     * Parses a value that may use legacy formatting.
+     */
+    @NotNull Component legacy(final @Nullable String value) {
+        if (value == null) {
+            return parsePossibleLegacy(null);
+        }
+        Component component = legacy.getIfPresent(value);
+        if (component == null) {
+            component = parsePossibleLegacy(value);
+            legacy.put(value, component);
+        }
+        return component;
+    }
+}
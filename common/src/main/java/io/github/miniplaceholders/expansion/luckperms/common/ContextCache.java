@@ -0,0 +1,81 @@
+package io.github.miniplaceholders.expansion.luckperms.common;
+
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.identity.Identity;
+import net.luckperms.api.context.ContextManager;
+import net.luckperms.api.context.ImmutableContextSet;
+import net.luckperms.api.event.EventBus;
+import net.luckperms.api.event.context.ContextUpdateEvent;
+import net.luckperms.api.event.user.UserUnloadEvent;
+import net.luckperms.api.model.user.User;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-user cache of the current contexts, refreshed when LuckPerms or the platform
+ * signal a change and otherwise after a maximum staleness
+ */
+final class ContextCache {
+    private final Map<UUID, Entry> contexts = new ConcurrentHashMap<>();
+    private final ContextManager contextManager;
+    private final long maxStalenessNanos;
+
+    ContextCache(final @NotNull ContextManager contextManager, final @NotNull Duration maxStaleness) {
+        this.contextManager = contextManager;
+        this.maxStalenessNanos = maxStaleness.toNanos();
+    }
+
+    @NotNull ImmutableContextSet get(final @NotNull User user) {
+        final long now = System.nanoTime();
+        final UUID uuid = user.getUniqueId();
+        final Entry current = contexts.get(uuid);
+        if (current != null && current.contexts != null && now - current.refreshedAt < maxStalenessNanos) {
+            return current.contexts;
+        }
+
+        final ImmutableContextSet computed = contextManager.getContext(user)
+            .orElseGet(contextManager::getStaticContext); // fallback to static context
+        final Entry entry = new Entry(computed, now);
+        // not published if invalidated again while it was being computed
+        if (current == null) {
+            contexts.putIfAbsent(uuid, entry);
+        } else {
+            contexts.replace(uuid, current, entry);
+        }
+        return computed;
+    }
+
+    void invalidate(final @NotNull UUID uuid) {
+        contexts.put(uuid, new Entry(null, 0));
+    }
+
+    void remove(final @NotNull UUID uuid) {
+        contexts.remove(uuid);
+    }
+
+    void subscribe(final @NotNull Object plugin, final @NotNull EventBus eventBus) {
+        eventBus.subscribe(plugin, ContextUpdateEvent.class, event -> {
+            if (event.getSubject() instanceof Audience audience) {
+                audience.get(Identity.UUID).ifPresent(this::invalidate);
+            }
+        });
+        eventBus.subscribe(plugin, UserUnloadEvent.class, event -> remove(event.getUser().getUniqueId()));
+    }
+
+    /**
+     * Compared by identity, so each invalidation token is distinct.
+     */
+    private static final class Entry {
+        private final ImmutableContextSet contexts;
+        private final long refreshedAt;
+
+        private Entry(final ImmutableContextSet contexts, final long refreshedAt) {
+            this.contexts = contexts;
+            this.refreshedAt = refreshedAt;
+        }
+    }
+}
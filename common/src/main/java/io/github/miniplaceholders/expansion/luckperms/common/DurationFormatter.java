@@ -58,6 +58,16 @@ class DurationFormatter {
         ChronoUnit.SECONDS
     };
 
+    private static final long[] UNIT_SECONDS = new long[UNITS.length];
+
+    static {
+        for (int i = 0; i < UNITS.length; i++) {
+            UNIT_SECONDS[i] = UNITS[i].getDuration().getSeconds();
+        }
+    }
+
+    private static final ThreadLocal<StringBuilder> BUILDER = ThreadLocal.withInitial(() -> new StringBuilder(32));
+
     private final boolean concise;
     private final ChronoUnit accuracy;
 
@@ -77,18 +87,31 @@ class DurationFormatter {
      * @return the formatted string
      */
     public String format(Duration duration) {
+        StringBuilder builder = BUILDER.get();
+        builder.setLength(0);
+        return format(duration, builder).toString();
+    }
+
+    /**
+     * Appends {@code duration} in its formatted form to {@code builder}.
+     *
+     * @param duration the duration
+     * @param builder the builder to append to
+     * @return the same builder
+     */
+    public StringBuilder format(Duration duration, StringBuilder builder) {
         long seconds = duration.getSeconds();
-        StringBuilder builder = new StringBuilder();
         int outputSize = 0;
 
-        for (ChronoUnit unit : UNITS) {
-            long n = seconds / unit.getDuration().getSeconds();
+        for (int i = 0; i < UNITS.length; i++) {
+            ChronoUnit unit = UNITS[i];
+            long n = seconds / UNIT_SECONDS[i];
             if (n > 0) {
-                seconds -= unit.getDuration().getSeconds() * n;
+                seconds -= UNIT_SECONDS[i] * n;
                 if (outputSize != 0) {
                     builder.append(' ');
                 }
-                builder.append(formatPart(n, unit));
+                appendPart(builder, n, unit);
                 outputSize++;
             }
             if (seconds <= 0 || unit == this.accuracy) {
@@ -97,9 +120,34 @@ class DurationFormatter {
         }
 
         if (outputSize == 0) {
-            return formatPart(seconds, ChronoUnit.SECONDS);
+            appendPart(builder, seconds, ChronoUnit.SECONDS);
         }
-        return builder.toString();
+        return builder;
+    }
+
+    /**
+     * Gets by how many seconds a countdown currently at {@code seconds}
+     * can still decrease before its formatted form changes.
+     *
+     * @param seconds the non-negative amount of seconds
+     * @return the amount of seconds the formatted form remains the same
+     */
+    public long stableSeconds(long seconds) {
+        boolean output = false;
+
+        for (int i = 0; i < UNITS.length; i++) {
+            long n = seconds / UNIT_SECONDS[i];
+            if (n > 0) {
+                seconds -= UNIT_SECONDS[i] * n;
+                output = true;
+            }
+            if (seconds <= 0 || UNITS[i] == this.accuracy) {
+                break;
+            }
+        }
+
+        // with no unit reached, the plain amount of seconds is shown
+        return output ? seconds : 0;
     }
 
     // Taken from https://github.com/lucko/LuckPerms/blob/master/common/src/main/resources/luckperms_en.properties
@@ -127,10 +175,35 @@ class DurationFormatter {
         .put("luckperms.duration.unit.seconds.short", "%s秒")
         .build();
 
-    private String formatPart(long amount, ChronoUnit unit) {
-        String format = this.concise ? "short" : amount == 1 ? "singular" : "plural";
-        String translationKey = "luckperms.duration.unit." + unit.name().toLowerCase(Locale.ROOT) + "." + format;
-        return String.format(TRANSLATIONS.get(translationKey), amount);
+    private static final int SHORT = 0;
+    private static final int SINGULAR = 1;
+    private static final int PLURAL = 2;
+
+    // Text following the amount in each translation, indexed by unit ordinal and then by form
+    private static final String[][] TEMPLATES = new String[ChronoUnit.values().length][];
+
+    static {
+        for (ChronoUnit unit : UNITS) {
+            String prefix = "luckperms.duration.unit." + unit.name().toLowerCase(Locale.ROOT) + ".";
+            TEMPLATES[unit.ordinal()] = new String[]{
+                compileTemplate(prefix + "short"),
+                compileTemplate(prefix + "singular"),
+                compileTemplate(prefix + "plural")
+            };
+        }
+    }
+
+    private static String compileTemplate(String translationKey) {
+        String translation = TRANSLATIONS.get(translationKey);
+        if (translation == null || !translation.startsWith("%s") || translation.indexOf('%', 2) != -1) {
+            throw new IllegalStateException("unsupported translation for " + translationKey + ": " + translation);
+        }
+        return translation.substring(2);
+    }
+
+    private void appendPart(StringBuilder builder, long amount, ChronoUnit unit) {
+        int form = this.concise ? SHORT : amount == 1 ? SINGULAR : PLURAL;
+        builder.append(amount).append(TEMPLATES[unit.ordinal()][form]);
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,130 @@
+package io.github.miniplaceholders.expansion.luckperms.common;
+
+import com.google.common.collect.ImmutableListMultimap;
+import net.kyori.adventure.text.minimessage.tag.Tag;
+import net.luckperms.api.model.user.User;
+import net.luckperms.api.node.Node;
+import net.luckperms.api.node.types.InheritanceNode;
+import net.luckperms.api.query.QueryOptions;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Absolute expiry instants of the temporary nodes of a user,
+ * indexed by node key and by group name
+ */
+final class ExpiryIndex {
+    private final ImmutableListMultimap<String, Instant> nodes;
+    private final ImmutableListMultimap<String, Instant> groups;
+    private final Map<Query, Countdown> countdowns = new ConcurrentHashMap<>();
+
+    private ExpiryIndex(ImmutableListMultimap<String, Instant> nodes, ImmutableListMultimap<String, Instant> groups) {
+        this.nodes = nodes;
+        this.groups = groups;
+    }
+
+    /**
+     * Indexes the nodes set directly on the user that apply in the given query options.
+     */
+    static @NotNull ExpiryIndex direct(final @NotNull User user, final @NotNull QueryOptions queryOptions) {
+        return build(user.getNodes(), queryOptions);
+    }
+
+    /**
+     * Indexes the nodes the user inherits in the given query options.
+     */
+    static @NotNull ExpiryIndex inherited(final @NotNull User user, final @NotNull QueryOptions queryOptions) {
+        return build(user.resolveInheritedNodes(queryOptions), null);
+    }
+
+    private static ExpiryIndex build(final Collection<Node> source, final @Nullable QueryOptions contextFilter) {
+        final Instant now = Instant.now();
+        final ImmutableListMultimap.Builder<String, Instant> nodes = ImmutableListMultimap.builder();
+        final ImmutableListMultimap.Builder<String, Instant> groups = ImmutableListMultimap.builder();
+        for (final Node node : source) {
+            final Instant expiry = node.getExpiry();
+            if (expiry == null || expiry.isBefore(now)) continue;
+            if (contextFilter != null && !contextFilter.satisfies(node.getContexts())) continue;
+
+            nodes.put(node.getKey(), expiry);
+            if (node instanceof InheritanceNode inheritanceNode) {
+                groups.put(inheritanceNode.getGroupName(), expiry);
+            }
+        }
+        return new ExpiryIndex(nodes.build(), groups.build());
+    }
+
+    /**
+     * Gets the formatted remaining time of the first unexpired node or inheritance node matching the query.
+     *
+     * <p>Formatted countdowns are reused until the instant their visible output changes,
+     * which for coarse accuracies spans many renders.</p>
+     */
+    @Nullable Countdown countdown(final @NotNull Query query) {
+        final Collection<Instant> expiries = (query.group() ? groups : nodes).get(query.name());
+        if (expiries.isEmpty()) return null;
+
+        final long now = System.currentTimeMillis();
+        final DurationFormatter formatter = query.formatter();
+        final Countdown cached = countdowns.get(query);
+        if (cached != null && now <= cached.deadline()) {
+            return cached;
+        }
+
+        final Instant nowInstant = Instant.ofEpochMilli(now);
+        for (final Instant expiry : expiries) {
+            final Duration remaining = Duration.between(nowInstant, expiry);
+            if (remaining.isNegative()) continue;
+
+            final long seconds = remaining.getSeconds();
+            final long deadline = expiry.toEpochMilli() - (seconds - formatter.stableSeconds(seconds)) * 1000;
+            final Countdown countdown = new Countdown(Tag.preProcessParsed(formatter.format(remaining)), deadline);
+            countdowns.put(query, countdown);
+            return countdown;
+        }
+        countdowns.remove(query);
+        return null;
+    }
+
+    /**
+     * Expiry of a node, or of the inheritance node of a group, formatted with the given accuracy
+     */
+    record Query(boolean group, @NotNull String name, @NotNull DurationFormatter formatter) {
+        /**
+         * Compiles the raw arguments of an expiry placeholder, group names being matched lowercase.
+         *
+         * @throws IllegalArgumentException if the accuracy is unknown
+         */
+        static @NotNull Query compile(final boolean group, final @NotNull Arguments arguments) {
+            final DurationFormatter formatter = switch (arguments.accuracy()) {
+                case "y" -> DurationFormatter.YEARS;
+                case "mo" -> DurationFormatter.MONTHS;
+                case "w" -> DurationFormatter.WEEKS;
+                case "d" -> DurationFormatter.DAYS;
+                case "h" -> DurationFormatter.HOURS;
+                case "m" -> DurationFormatter.MINUTES;
+                case "s" -> DurationFormatter.SECONDS;
+                default -> throw new IllegalArgumentException("unknown argument: " + arguments.accuracy());
+            };
+            return new Query(group, group ? arguments.name().toLowerCase(Locale.ROOT) : arguments.name(), formatter);
+        }
+    }
+
+    /**
+     * Raw arguments of an expiry placeholder, under which its compiled query is cached
+     */
+    record Arguments(@NotNull String name, @NotNull String accuracy) {}
+
+    /**
+     * @param tag the formatted remaining time
+     * @param deadline the last epoch millisecond at which the tag is still accurate
+     */
+    record Countdown(@NotNull Tag tag, long deadline) {}
+}
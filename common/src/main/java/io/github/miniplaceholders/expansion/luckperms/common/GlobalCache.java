@@ -0,0 +1,52 @@
+package io.github.miniplaceholders.expansion.luckperms.common;
+
+import net.luckperms.api.LuckPerms;
+import net.luckperms.api.event.EventBus;
+import net.luckperms.api.event.group.GroupCreateEvent;
+import net.luckperms.api.event.group.GroupDataRecalculateEvent;
+import net.luckperms.api.event.group.GroupDeleteEvent;
+import net.luckperms.api.event.node.NodeMutateEvent;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holder of the current {@link GlobalSnapshot}, rebuilt lazily after a group changes
+ */
+final class GlobalCache {
+    private final LuckPerms luckPerms;
+    private final ComponentCache components;
+    // Either the current GlobalSnapshot or the token of the last invalidation
+    private final AtomicReference<Object> state = new AtomicReference<>(new Object());
+
+    GlobalCache(final @NotNull LuckPerms luckPerms, final @NotNull ComponentCache components) {
+        this.luckPerms = luckPerms;
+        this.components = components;
+    }
+
+    @NotNull GlobalSnapshot get() {
+        final Object current = state.get();
+        if (current instanceof GlobalSnapshot snapshot) {
+            return snapshot;
+        }
+        final GlobalSnapshot snapshot = GlobalSnapshot.build(luckPerms, components);
+        // not published if invalidated again while it was being built
+        state.compareAndSet(current, snapshot);
+        return snapshot;
+    }
+
+    void invalidate() {
+        state.set(new Object());
+    }
+
+    void subscribe(final @NotNull Object plugin, final @NotNull EventBus eventBus) {
+        eventBus.subscribe(plugin, GroupDataRecalculateEvent.class, event -> invalidate());
+        eventBus.subscribe(plugin, GroupCreateEvent.class, event -> invalidate());
+        eventBus.subscribe(plugin, GroupDeleteEvent.class, event -> invalidate());
+        eventBus.subscribe(plugin, NodeMutateEvent.class, event -> {
+            if (event.isGroup()) {
+                invalidate();
+            }
+        });
+    }
+}
@@ -0,0 +1,83 @@
+package io.github.miniplaceholders.expansion.luckperms.common;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.tag.Tag;
+import net.luckperms.api.LuckPerms;
+import net.luckperms.api.cacheddata.CachedMetaData;
+import net.luckperms.api.context.ImmutableContextSet;
+import net.luckperms.api.model.group.Group;
+import net.luckperms.api.query.QueryOptions;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable view of the data that does not depend on any player
+ *
+ * @param staticContext the static context of the server
+ * @param groups the data of every loaded group, by name
+ * @param loadedGroups the display names of the loaded groups, heaviest first
+ */
+record GlobalSnapshot(
+    @NotNull ImmutableContextSet staticContext,
+    @NotNull Map<String, GroupData> groups,
+    @NotNull Component loadedGroups
+) {
+    private static final Comparator<Group> HEAVIEST_FIRST = Comparator
+        .comparingInt((Group group) -> group.getWeight().orElse(0))
+        .reversed()
+        .thenComparing(Group::getName);
+
+    static @NotNull GlobalSnapshot build(final @NotNull LuckPerms luckPerms, final @NotNull ComponentCache components) {
+        final QueryOptions queryOptions = luckPerms.getContextManager().getStaticQueryOptions();
+        final List<Group> loaded = luckPerms.getGroupManager().getLoadedGroups().stream()
+            .sorted(HEAVIEST_FIRST)
+            .toList();
+
+        final Map<String, GroupData> groups = new HashMap<>(loaded.size());
+        for (final Group group : loaded) {
+            groups.put(group.getName(), GroupData.of(group, queryOptions, components));
+        }
+        final Component loadedGroups = loaded.stream()
+            .map(group -> groups.get(group.getName()).displayName())
+            .collect(Component.toComponent(Component.text(", ")));
+
+        return new GlobalSnapshot(luckPerms.getContextManager().getStaticContext(), Map.copyOf(groups), loadedGroups);
+    }
+
+    /**
+     * Gets the data of a loaded group.
+     *
+     * @param name the group name, already lowercase like LuckPerms stores it
+     */
+    @Nullable GroupData group(final @NotNull String name) {
+        return groups.get(name);
+    }
+
+    /**
+     * Rendered data of a group
+     */
+    record GroupData(
+        @NotNull Component prefix,
+        @NotNull Component suffix,
+        @NotNull Component displayName,
+        @Nullable Tag weight
+    ) {
+        static GroupData of(final Group group, final QueryOptions queryOptions, final ComponentCache components) {
+            final CachedMetaData metaData = group.getCachedData().getMetaData(queryOptions);
+            final String displayName = group.getDisplayName(queryOptions);
+            return new GroupData(
+                components.legacy(metaData.getPrefix()),
+                components.legacy(metaData.getSuffix()),
+                components.legacy(displayName == null ? group.getName() : displayName),
+                group.getWeight().isPresent()
+                    ? Tag.preProcessParsed(Integer.toString(group.getWeight().getAsInt()))
+                    : null
+            );
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.miniplaceholders.expansion.luckperms.common;
+
+import com.google.common.collect.ImmutableSet;
+import net.kyori.adventure.text.Component;
+import net.luckperms.api.model.group.Group;
+import net.luckperms.api.model.user.User;
+import net.luckperms.api.query.QueryOptions;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Groups inherited by a user, resolved once per data recalculation
+ */
+final class InheritedGroups {
+    private static final Component SEPARATOR = Component.text(", ");
+
+    private final ImmutableSet<String> names;
+    private final Component rendered;
+
+    private InheritedGroups(final ImmutableSet<String> names, final Component rendered) {
+        this.names = names;
+        this.rendered = rendered;
+    }
+
+    static @NotNull InheritedGroups resolve(
+        final @NotNull User user,
+        final @NotNull QueryOptions queryOptions,
+        final @NotNull ComponentCache components
+    ) {
+        final Collection<Group> groups = user.getInheritedGroups(queryOptions);
+        final ImmutableSet.Builder<String> names = ImmutableSet.builderWithExpectedSize(groups.size());
+        final List<Component> displayNames = new ArrayList<>(groups.size());
+        for (final Group group : groups) {
+            names.add(group.getName());
+            displayNames.add(components.legacy(group.getDisplayName()));
+        }
+        return new InheritedGroups(names.build(), displayNames.stream().collect(Component.toComponent(SEPARATOR)));
+    }
+
+    /**
+     * Checks whether the user inherits the group.
+     *
+     * @param group the group name, already lowercase like LuckPerms stores it
+     */
+    boolean contains(final @NotNull String group) {
+        return names.contains(group);
+    }
+
+    /**
+     * Gets the display names of the groups, separated by commas.
+     */
+    @NotNull Component rendered() {
+        return rendered;
+    }
+}
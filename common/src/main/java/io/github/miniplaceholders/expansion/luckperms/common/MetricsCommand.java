@@ -0,0 +1,84 @@
+package io.github.miniplaceholders.expansion.luckperms.common;
+
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Platform independent handler of the placeholder metrics admin command
+ *
+ * <p>Usage: {@code /lpexpansion [enable|disable|reset]}, without arguments shows the current snapshot.</p>
+ */
+public final class MetricsCommand {
+    public static final String NAME = "lpexpansion";
+    public static final String PERMISSION = "miniplaceholders.luckperms.metrics";
+    private static final List<String> SUBCOMMANDS = List.of("enable", "disable", "reset");
+
+    private final PlaceholderMetrics metrics;
+
+    public MetricsCommand(final @NotNull PlaceholderMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public void execute(final @NotNull Audience source, final String @NotNull [] args) {
+        if (args.length == 0) {
+            sendSnapshot(source);
+            return;
+        }
+        switch (args[0].toLowerCase(Locale.ROOT)) {
+            case "enable" -> {
+                metrics.setEnabled(true);
+                source.sendMessage(Component.text("LuckPerms placeholder metrics enabled", NamedTextColor.GREEN));
+            }
+            case "disable" -> {
+                metrics.setEnabled(false);
+                source.sendMessage(Component.text("LuckPerms placeholder metrics disabled", NamedTextColor.YELLOW));
+            }
+            case "reset" -> {
+                metrics.reset();
+                source.sendMessage(Component.text("LuckPerms placeholder metrics reset", NamedTextColor.GREEN));
+            }
+            default -> source.sendMessage(Component.text("Usage: /" + NAME + " [enable|disable|reset]", NamedTextColor.RED));
+        }
+    }
+
+    public @NotNull List<String> suggest(final String @NotNull [] args) {
+        if (args.length > 1) {
+            return List.of();
+        }
+        final String input = args.length == 0 ? "" : args[0].toLowerCase(Locale.ROOT);
+        return SUBCOMMANDS.stream().filter(subcommand -> subcommand.startsWith(input)).toList();
+    }
+
+    private void sendSnapshot(final Audience source) {
+        source.sendMessage(Component.text()
+            .append(Component.text("LuckPerms placeholder metrics ", NamedTextColor.GOLD))
+            .append(metrics.isEnabled()
+                ? Component.text("(enabled)", NamedTextColor.GREEN)
+                : Component.text("(disabled)", NamedTextColor.RED)));
+
+        for (final PlaceholderStatistics statistics : metrics.snapshot()) {
+            if (statistics.invocations() == 0) continue;
+
+            source.sendMessage(Component.text()
+                .append(Component.text(statistics.name(), NamedTextColor.AQUA))
+                .append(Component.text(" calls=" + statistics.invocations()
+                    + " misses=" + statistics.misses()
+                    + " p50<=" + formatNanos(statistics.percentileNanos(0.5))
+                    + " p99<=" + formatNanos(statistics.percentileNanos(0.99)), NamedTextColor.GRAY)));
+        }
+    }
+
+    private static String formatNanos(final long nanos) {
+        if (nanos == Long.MAX_VALUE) {
+            return "inf";
+        }
+        return nanos < 1_000_000
+            ? String.format(Locale.ROOT, "%.2fus", nanos / 1_000D)
+            : String.format(Locale.ROOT, "%.2fms", nanos / 1_000_000D);
+    }
+}
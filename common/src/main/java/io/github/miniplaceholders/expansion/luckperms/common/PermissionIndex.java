@@ -0,0 +1,57 @@
+package io.github.miniplaceholders.expansion.luckperms.common;
+
+import net.luckperms.api.cacheddata.CachedPermissionData;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Granted permission nodes of a user, sorted for prefix queries
+ *
+ * <p>Single permissions are checked through {@link CachedPermissionData#checkPermission(String)} instead,
+ * so they follow the processors and configuration of LuckPerms.</p>
+ */
+final class PermissionIndex {
+    // Sorted keys of the granted permissions
+    private final String[] granted;
+
+    private PermissionIndex(final String[] granted) {
+        this.granted = granted;
+    }
+
+    static @NotNull PermissionIndex build(final @NotNull CachedPermissionData data) {
+        final String[] granted = data.getPermissionMap().entrySet().stream()
+            .filter(Map.Entry::getValue)
+            .map(Map.Entry::getKey)
+            .sorted()
+            .toArray(String[]::new);
+        return new PermissionIndex(granted);
+    }
+
+    /**
+     * Counts the granted permissions starting with the given prefix.
+     */
+    int countGranted(final @NotNull Prefix prefix) {
+        return insertionPoint(prefix.upperBound) - insertionPoint(prefix.lowerBound);
+    }
+
+    private int insertionPoint(final String key) {
+        final int index = Arrays.binarySearch(granted, key);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * Compiled permission prefix argument, as the bounds of its range of sorted keys.
+     */
+    static final class Prefix {
+        private final String lowerBound;
+        private final String upperBound;
+
+        Prefix(final @NotNull String prefix) {
+            this.lowerBound = prefix.toLowerCase(Locale.ROOT);
+            this.upperBound = lowerBound + Character.MAX_VALUE;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package io.github.miniplaceholders.expansion.luckperms.common;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Invocation counters and latency histograms of the placeholders of an expansion.
+ *
+ * <p>Recording is disabled by default, in which case an invocation only costs a volatile read.</p>
+ */
+public final class PlaceholderMetrics {
+    /**
+     * Upper bound in nanoseconds of the first histogram bucket, every next bucket doubles it.
+     */
+    public static final long FIRST_BUCKET_NANOS = 256;
+    /**
+     * Amount of histogram buckets, the last one has no upper bound.
+     */
+    public static final int BUCKETS = 14;
+
+    private final Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+    private volatile boolean enabled;
+
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Resets the counters of every placeholder.
+     */
+    public void reset() {
+        recorders.values().forEach(Recorder::reset);
+    }
+
+    /**
+     * Takes a snapshot of the counters of every placeholder, sorted by name.
+     *
+     * <p>The counters keep being updated while the snapshot is taken,
+     * so the values of a placeholder may be slightly inconsistent between them.</p>
+     */
+    public @NotNull List<PlaceholderStatistics> snapshot() {
+        final List<PlaceholderStatistics> statistics = new ArrayList<>(recorders.size());
+        recorders.forEach((name, recorder) -> statistics.add(recorder.snapshot(name)));
+        statistics.sort((a, b) -> a.name().compareTo(b.name()));
+        return statistics;
+    }
+
+    @NotNull Recorder recorder(final @NotNull String name) {
+        return recorders.computeIfAbsent(name, n -> new Recorder());
+    }
+
+    static int bucket(final long nanos) {
+        if (nanos <= FIRST_BUCKET_NANOS) {
+            return 0;
+        }
+        return Math.min(BUCKETS - 1, Long.SIZE - Long.numberOfLeadingZeros(nanos - 1) - Long.numberOfTrailingZeros(FIRST_BUCKET_NANOS));
+    }
+
+    static final class Recorder {
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder[] histogram = new LongAdder[BUCKETS];
+
+        private Recorder() {
+            for (int i = 0; i < BUCKETS; i++) {
+                histogram[i] = new LongAdder();
+            }
+        }
+
+        void record(final long nanos, final boolean miss) {
+            invocations.increment();
+            if (miss) {
+                misses.increment();
+            }
+            histogram[bucket(nanos)].increment();
+        }
+
+        private void reset() {
+            invocations.reset();
+            misses.reset();
+            for (final LongAdder bucket : histogram) {
+                bucket.reset();
+            }
+        }
+
+        private PlaceholderStatistics snapshot(final String name) {
+            final long[] buckets = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets[i] = histogram[i].sum();
+            }
+            return new PlaceholderStatistics(name, invocations.sum(), misses.sum(), buckets);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package io.github.miniplaceholders.expansion.luckperms.common;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Snapshot of the metrics of a placeholder
+ *
+ * @param name the placeholder name, without the expansion prefix
+ * @param invocations the amount of times the placeholder was resolved
+ * @param misses the amount of resolutions that returned no tag
+ * @param histogram the amount of resolutions in each latency bucket,
+ *                  see {@link #bucketUpperBound(int)}
+ */
+public record PlaceholderStatistics(@NotNull String name, long invocations, long misses, long @NotNull [] histogram) {
+
+    /**
+     * Gets the upper bound of a histogram bucket.
+     *
+     * @param bucket the bucket index
+     * @return the upper bound in nanoseconds, or {@link Long#MAX_VALUE} for the last bucket
+     */
+    public static long bucketUpperBound(final int bucket) {
+        return bucket >= PlaceholderMetrics.BUCKETS - 1
+            ? Long.MAX_VALUE
+            : PlaceholderMetrics.FIRST_BUCKET_NANOS << bucket;
+    }
+
+    /**
+     * Estimates a latency percentile from the histogram.
+     *
+     * @param percentile the percentile, between 0 and 1
+     * @return the upper bound in nanoseconds of the bucket holding that percentile, or 0 without invocations
+     */
+    public long percentileNanos(final double percentile) {
+        final long total = Arrays.stream(histogram).sum();
+        if (total == 0) {
+            return 0;
+        }
+        final long target = (long) Math.ceil(total * percentile);
+        long seen = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            seen += histogram[i];
+            if (seen >= target) {
+                return bucketUpperBound(i);
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof PlaceholderStatistics other
+            && name.equals(other.name)
+            && invocations == other.invocations
+            && misses == other.misses
+            && Arrays.equals(histogram, other.histogram);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * (31 * name.hashCode() + Long.hashCode(invocations)) + Long.hashCode(misses)) + Arrays.hashCode(histogram);
+    }
+
+    @Override
+    public String toString() {
+        return "PlaceholderStatistics[name=" + name + ", invocations=" + invocations + ", misses=" + misses
+            + ", histogram=" + Arrays.toString(histogram) + "]";
+    }
+}
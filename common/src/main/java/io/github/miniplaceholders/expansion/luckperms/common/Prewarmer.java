@@ -0,0 +1,57 @@
+package io.github.miniplaceholders.expansion.luckperms.common;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Bounded background executor warming the caches of joining players.
+ *
+ * <p>When the queue is full, for example on a mass join after a restart,
+ * further requests are dropped and those players are warmed by their first render instead.</p>
+ */
+final class Prewarmer {
+    private static final int THREADS = 2;
+    private static final int QUEUE_CAPACITY = 256;
+
+    private final ThreadPoolExecutor executor;
+    private final Consumer<UUID> task;
+
+    Prewarmer(final @NotNull Consumer<UUID> task) {
+        this.task = task;
+        this.executor = new ThreadPoolExecutor(
+            THREADS, THREADS,
+            30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+            new DaemonThreadFactory(),
+            new ThreadPoolExecutor.DiscardPolicy()
+        );
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    void submit(final @NotNull UUID uuid) {
+        // dropped by the discard policy when full or shut down
+        executor.execute(() -> task.accept(uuid));
+    }
+
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static final class DaemonThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final @NotNull Runnable runnable) {
+            final Thread thread = new Thread(runnable, "LuckPerms-Expansion Prewarm #" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
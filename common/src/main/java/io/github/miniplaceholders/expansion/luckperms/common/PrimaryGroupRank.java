@@ -0,0 +1,71 @@
+package io.github.miniplaceholders.expansion.luckperms.common;
+
+import net.kyori.adventure.text.minimessage.tag.Tag;
+import net.luckperms.api.LuckPerms;
+import net.luckperms.api.model.group.Group;
+import net.luckperms.api.track.Track;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Locale;
+
+/**
+ * Weight and track position of the primary group of a user, resolved once per data recalculation
+ *
+ * <p>The sort key is made of the weight and then the highest position of the group in any loaded track,
+ * both inverted and zero-padded so that a plain ascending string sort puts the highest ranks first.
+ * Users without a primary group, or whose group has no weight, sort as weight 0,
+ * and groups on no track sort after those on one.</p>
+ */
+final class PrimaryGroupRank {
+    // Integer.MAX_VALUE - Integer.MIN_VALUE has 10 digits
+    private static final String SORT_KEY_FORMAT = "%010d%04d";
+    private static final int NO_TRACK_POSITION = 9999;
+
+    private final @Nullable Tag weight;
+    private final Tag sortKey;
+
+    private PrimaryGroupRank(final @Nullable Tag weight, final Tag sortKey) {
+        this.weight = weight;
+        this.sortKey = sortKey;
+    }
+
+    static @NotNull PrimaryGroupRank resolve(final @Nullable String primaryGroup, final @NotNull LuckPerms luckPerms) {
+        final Group group = primaryGroup == null ? null : luckPerms.getGroupManager().getGroup(primaryGroup);
+        final int weight = group == null ? 0 : group.getWeight().orElse(0);
+
+        int position = -1;
+        if (group != null) {
+            for (final Track track : luckPerms.getTrackManager().getLoadedTracks()) {
+                position = Math.max(position, track.getGroups().indexOf(group.getName()));
+            }
+        }
+
+        final String sortKey = String.format(Locale.ROOT, SORT_KEY_FORMAT,
+            (long) Integer.MAX_VALUE - weight,
+            position == -1 ? NO_TRACK_POSITION : NO_TRACK_POSITION - 1 - Math.min(position, NO_TRACK_POSITION - 1)
+        );
+        return new PrimaryGroupRank(
+            group != null && group.getWeight().isPresent()
+                ? Tag.preProcessParsed(Integer.toString(weight))
+                : null,
+            Tag.preProcessParsed(sortKey)
+        );
+    }
+
+    /**
+     * Gets the weight of the primary group.
+     *
+     * @return the weight, or null if the group is not loaded or has no weight
+     */
+    @Nullable Tag weight() {
+        return weight;
+    }
+
+    /**
+     * Gets the fixed-width sort key of the user.
+     */
+    @NotNull Tag sortKey() {
+        return sortKey;
+    }
+}
@@ -0,0 +1,61 @@
+package io.github.miniplaceholders.expansion.luckperms.common;
+
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.text.minimessage.Context;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * Last user resolved by the current thread, tied to the MiniMessage {@link Context} it was resolved in.
+ *
+ * <p>MiniMessage creates a new context for every deserialization and resolves all of its tags
+ * on the calling thread, so every luckperms tag of the same string shares one resolution.
+ * The context, the audience and the user are only weakly referenced, so a thread that stops rendering
+ * does not keep the input, the resolvers, the player or the LuckPerms data of its last render alive.</p>
+ *
+ * <p>It also tracks until when the time-dependent values rendered by the thread stay accurate.</p>
+ */
+final class RenderScope {
+    private static final WeakReference<Object> NONE = new WeakReference<>(null);
+    private static final WeakReference<CachedUser> NO_USER = new WeakReference<>(null);
+
+    private WeakReference<?> context = NONE;
+    private WeakReference<?> audience = NONE;
+    private WeakReference<CachedUser> user = NO_USER;
+    private long deadline = Long.MAX_VALUE;
+
+    boolean matches(final Context context, final Audience audience) {
+        return this.context.get() == context && this.audience.get() == audience
+            // collected once its cache dropped it, resolved again then
+            && (this.user == NO_USER || this.user.get() != null);
+    }
+
+    @Nullable CachedUser user() {
+        return this.user.get();
+    }
+
+    /**
+     * Lowers the last epoch millisecond at which the values rendered by this thread are accurate.
+     */
+    void expiresAt(final long deadline) {
+        if (deadline < this.deadline) {
+            this.deadline = deadline;
+        }
+    }
+
+    /**
+     * Gets the deadline collected since the last call, then resets it.
+     */
+    long takeDeadline() {
+        final long deadline = this.deadline;
+        this.deadline = Long.MAX_VALUE;
+        return deadline;
+    }
+
+    void set(final Context context, final Audience audience, final @Nullable CachedUser user) {
+        this.context = new WeakReference<>(context);
+        this.audience = new WeakReference<>(audience);
+        this.user = user == null ? NO_USER : new WeakReference<>(user);
+    }
+}
@@ -0,0 +1,119 @@
+package io.github.miniplaceholders.expansion.luckperms.common;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Properties;
+
+/**
+ * Settings of the expansion, read from a properties file in the data directory of the plugin
+ *
+ * @param contextMaxStaleness the longest time a cached player context is used
+ *                            without LuckPerms signalling a change, zero to disable caching
+ * @param loadUsers whether users not loaded by LuckPerms are loaded asynchronously on a miss
+ * @param loadedUsersMaximumSize the maximum amount of users, or failed loads, held after being loaded that way,
+ *                               positive when loading users
+ * @param loadedUsersExpiry how long users loaded that way are held, even once LuckPerms unloads them,
+ *                          and how long a failed load is held before being retried, positive when loading users
+ * @param loadingFallback the MiniMessage value of the placeholders while their user is loading,
+ *                        empty to leave them unresolved
+ */
+public record Settings(
+    @NotNull Duration contextMaxStaleness,
+    boolean loadUsers,
+    long loadedUsersMaximumSize,
+    @NotNull Duration loadedUsersExpiry,
+    @NotNull String loadingFallback
+) {
+    public static final String FILE_NAME = "config.properties";
+    public static final Settings DEFAULTS = new Settings(Duration.ofSeconds(1), false, 500, Duration.ofMinutes(1), "");
+
+    private static final String CONTEXT_MAX_STALENESS = "context-max-staleness-ms";
+    private static final String LOAD_USERS = "load-unloaded-users";
+    private static final String LOADED_USERS_MAXIMUM_SIZE = "loaded-users-maximum-size";
+    private static final String LOADED_USERS_EXPIRY = "loaded-users-expiry-ms";
+    private static final String LOADING_FALLBACK = "loading-fallback";
+    private static final String DEFAULT_FILE = """
+        # LuckPerms Expansion for MiniPlaceholders
+
+        # Longest time in milliseconds the contexts of a player are cached for the context placeholder.
+        # Changes signalled by LuckPerms and world or server switches refresh them immediately.
+        # 0 disables the cache.
+        %s=%d
+
+        # Whether to load users LuckPerms has not loaded yet, such as during join or quit, without blocking the render.
+        %s=%b
+        # Maximum amount of users held after being loaded that way, and for how many milliseconds,
+        # even once LuckPerms unloads them. Failed loads are held too, and only retried after that time.
+        # Both must be positive when loading users.
+        %s=%d
+        %s=%d
+        # MiniMessage value of the placeholders while their user is being loaded, empty to leave them unresolved.
+        %s=%s
+        """.formatted(
+            CONTEXT_MAX_STALENESS, DEFAULTS.contextMaxStaleness().toMillis(),
+            LOAD_USERS, DEFAULTS.loadUsers(),
+            LOADED_USERS_MAXIMUM_SIZE, DEFAULTS.loadedUsersMaximumSize(),
+            LOADED_USERS_EXPIRY, DEFAULTS.loadedUsersExpiry().toMillis(),
+            LOADING_FALLBACK, DEFAULTS.loadingFallback()
+        );
+
+    /**
+     * Loads the settings from the given directory, writing the default file if it does not exist.
+     *
+     * @param directory the data directory of the plugin
+     * @return the loaded settings
+     * @throws IOException if the file cannot be read or written
+     * @throws IllegalArgumentException if a value is invalid
+     */
+    public static @NotNull Settings load(final @NotNull Path directory) throws IOException {
+        final Path file = directory.resolve(FILE_NAME);
+        if (Files.notExists(file)) {
+            Files.createDirectories(directory);
+            Files.writeString(file, DEFAULT_FILE, StandardCharsets.UTF_8);
+        }
+
+        final Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        final boolean loadUsers = bool(properties, LOAD_USERS, DEFAULTS.loadUsers());
+        // nothing would be held with zero, starting a load on every render
+        final long loadedUsersMinimum = loadUsers ? 1 : 0;
+        return new Settings(
+            Duration.ofMillis(atLeast(properties, CONTEXT_MAX_STALENESS, DEFAULTS.contextMaxStaleness().toMillis(), 0)),
+            loadUsers,
+            atLeast(properties, LOADED_USERS_MAXIMUM_SIZE, DEFAULTS.loadedUsersMaximumSize(), loadedUsersMinimum),
+            Duration.ofMillis(atLeast(properties, LOADED_USERS_EXPIRY, DEFAULTS.loadedUsersExpiry().toMillis(), loadedUsersMinimum)),
+            properties.getProperty(LOADING_FALLBACK, DEFAULTS.loadingFallback())
+        );
+    }
+
+    private static boolean bool(final Properties properties, final String key, final boolean defaultValue) {
+        final String value = properties.getProperty(key);
+        if (value == null) return defaultValue;
+
+        return switch (value.trim()) {
+            case "true" -> true;
+            case "false" -> false;
+            default -> throw new IllegalArgumentException("invalid value for " + key + ": " + value);
+        };
+    }
+
+    private static long atLeast(final Properties properties, final String key, final long defaultValue, final long minimum) {
+        final String value = properties.getProperty(key);
+        if (value == null) return defaultValue;
+
+        try {
+            final long parsed = Long.parseLong(value.trim());
+            if (parsed >= minimum) return parsed;
+        } catch (NumberFormatException ignored) {
+        }
+        throw new IllegalArgumentException("invalid value for " + key + ": " + value);
+    }
+}
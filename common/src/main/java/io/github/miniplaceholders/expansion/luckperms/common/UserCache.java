@@ -0,0 +1,76 @@
+package io.github.miniplaceholders.expansion.luckperms.common;
+
+import net.luckperms.api.event.EventBus;
+import net.luckperms.api.event.group.GroupDataRecalculateEvent;
+import net.luckperms.api.event.track.TrackDeleteEvent;
+import net.luckperms.api.event.track.TrackLoadEvent;
+import net.luckperms.api.event.track.mutate.TrackMutateEvent;
+import net.luckperms.api.event.user.UserDataRecalculateEvent;
+import net.luckperms.api.event.user.UserUnloadEvent;
+import net.luckperms.api.model.user.User;
+import net.luckperms.api.query.QueryOptions;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user cache of {@link CachedUser}, cleared through the LuckPerms {@link EventBus}.
+ *
+ * <p>Lookups never lock, entries are built outside the map and only published
+ * if nothing invalidated them in the meantime.</p>
+ */
+final class UserCache {
+    // Either the CachedUser of a user or the token of its last invalidation
+    private final Map<UUID, Object> users = new ConcurrentHashMap<>();
+    // Incremented to invalidate every user at once
+    private final AtomicLong generation = new AtomicLong();
+    private final ComponentCache components;
+
+    UserCache(final @NotNull ComponentCache components) {
+        this.components = components;
+    }
+
+    @NotNull CachedUser get(final @NotNull User user) {
+        final long generation = this.generation.get();
+        final QueryOptions queryOptions = user.getQueryOptions();
+        final Object current = users.get(user.getUniqueId());
+        if (current instanceof CachedUser cached && cached.isValidFor(user, queryOptions, generation)) {
+            return cached;
+        }
+
+        final CachedUser created = new CachedUser(user, queryOptions, generation, components);
+        // not published if invalidated again while it was being built
+        if (current == null) {
+            users.putIfAbsent(user.getUniqueId(), created);
+        } else {
+            users.replace(user.getUniqueId(), current, created);
+        }
+        return created;
+    }
+
+    void invalidate(final @NotNull UUID uuid) {
+        users.put(uuid, new Object());
+    }
+
+    void remove(final @NotNull UUID uuid) {
+        users.remove(uuid);
+    }
+
+    void invalidateAll() {
+        generation.incrementAndGet();
+    }
+
+    void subscribe(final @NotNull Object plugin, final @NotNull EventBus eventBus) {
+        eventBus.subscribe(plugin, UserDataRecalculateEvent.class, event -> invalidate(event.getUser().getUniqueId()));
+        eventBus.subscribe(plugin, UserUnloadEvent.class, event -> remove(event.getUser().getUniqueId()));
+        // users inheriting the group are invalidated by LuckPerms without a recalculation event of their own
+        eventBus.subscribe(plugin, GroupDataRecalculateEvent.class, event -> invalidateAll());
+        // track changes move sort keys without recalculating anything
+        eventBus.subscribe(plugin, TrackLoadEvent.class, event -> invalidateAll());
+        eventBus.subscribe(plugin, TrackDeleteEvent.class, event -> invalidateAll());
+        eventBus.subscribe(plugin, TrackMutateEvent.class, event -> invalidateAll());
+    }
+}
@@ -0,0 +1,77 @@
+package io.github.miniplaceholders.expansion.luckperms.common;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import net.luckperms.api.model.user.User;
+import net.luckperms.api.model.user.UserManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Loads users LuckPerms has not loaded, without ever blocking the rendering thread.
+ *
+ * <p>A miss starts a single asynchronous load per user, renders keep missing until it completes.
+ * Loaded users are held for a limited time, even once LuckPerms unloads them, which it does
+ * shortly after loading users that are not online. They are not updated in the meantime.
+ * Failed and empty loads are held as well, so a storage outage or a UUID without data
+ * does not start a load on every render.</p>
+ *
+ * <p>The other caches keep nothing about those users once LuckPerms unloaded them,
+ * so the eviction listener is called when a held user is evicted to let them drop it too.</p>
+ */
+final class UserLoader {
+    private final UserManager userManager;
+    // Empty when the load failed or found no user
+    private final Cache<UUID, Optional<User>> loaded;
+    private final Set<UUID> loading = ConcurrentHashMap.newKeySet();
+
+    UserLoader(
+        final @NotNull UserManager userManager,
+        final long maximumSize,
+        final @NotNull Duration expiry,
+        final @NotNull Consumer<UUID> evictionListener
+    ) {
+        this.userManager = userManager;
+        this.loaded = CacheBuilder.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(expiry.toMillis(), TimeUnit.MILLISECONDS)
+            .removalListener((RemovalNotification<UUID, Optional<User>> notification) -> {
+                if (notification.wasEvicted() && notification.getValue().isPresent()) {
+                    evictionListener.accept(notification.getKey());
+                }
+            })
+            .build();
+    }
+
+    /**
+     * Gets a user loaded by this loader, or starts loading it.
+     *
+     * @return the user, or null while it is being loaded or if its last load failed
+     */
+    @Nullable User get(final @NotNull UUID uuid) {
+        final Optional<User> user = loaded.getIfPresent(uuid);
+        if (user != null) {
+            return user.orElse(null);
+        }
+        if (loading.add(uuid)) {
+            userManager.loadUser(uuid).whenComplete((result, error) -> {
+                loaded.put(uuid, Optional.ofNullable(error == null ? result : null));
+                loading.remove(uuid);
+            });
+        }
+        return null;
+    }
+
+    boolean isLoading(final @NotNull UUID uuid) {
+        return loading.contains(uuid);
+    }
+}
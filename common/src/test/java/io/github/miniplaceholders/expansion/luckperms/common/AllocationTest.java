@@ -0,0 +1,182 @@
+package io.github.miniplaceholders.expansion.luckperms.common;
+
+import io.github.miniplaceholders.api.Expansion;
+import io.github.miniplaceholders.expansion.luckperms.fake.FakeLuckPerms;
+import io.github.miniplaceholders.expansion.luckperms.fake.FakePlayer;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.Context;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.tag.Tag;
+import net.kyori.adventure.text.minimessage.tag.resolver.ArgumentQueue;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the bytes allocated by each placeholder and by {@link DurationFormatter}
+ * against the budgets of {@code allocation-budgets.properties}.
+ *
+ * <p>Every case is warmed up first so the JIT has removed what escape analysis can,
+ * then measured with {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)}
+ * over many runs. A placeholder is measured as the difference between deserializing its tag
+ * with the expansion and with a resolver returning a constant tag, so the budget only
+ * covers the work of the expansion and not the MiniMessage parse around it.</p>
+ *
+ * <p>The numbers depend on the JVM and its JIT, so a case over its budget is measured again
+ * a few times and only fails if none of the attempts fits. This test is tagged {@code allocation}
+ * and runs through the {@code allocationTest} task, on its own JVM, as part of {@code check}.</p>
+ */
+@org.junit.jupiter.api.Tag("allocation")
+class AllocationTest {
+    private static final int WARMUP_RUNS = 50_000;
+    private static final int MEASURED_RUNS = 20_000;
+    private static final int ATTEMPTS = 3;
+    private static final String[] PLACEHOLDERS = {
+        "<luckperms_prefix>",
+        "<luckperms_suffix>",
+        "<luckperms_has_permission:benchmark.default.0>",
+        "<luckperms_check_permission:benchmark.missing>",
+        "<luckperms_has_any_permission:benchmark.missing:benchmark.default.0>",
+        "<luckperms_has_all_permissions:benchmark.default.0:benchmark.default.1>",
+        "<luckperms_count_permissions:benchmark.default>",
+        "<luckperms_inherited_groups>",
+        "<luckperms_primary_group_name>",
+        "<luckperms_primary_group_weight>",
+        "<luckperms_sort_key>",
+        "<luckperms_inherits_group:default>",
+        "<luckperms_meta:color>",
+        "<luckperms_context:world>",
+        "<luckperms_static_context:server>",
+        "<luckperms_expiry_time:benchmark.temporary.0:m>",
+        "<luckperms_inherited_expiry_time:benchmark.temporary.0:m>",
+        "<luckperms_group_expiry_time:vip:d>",
+        "<luckperms_inherited_group_expiry_time:vip:d>",
+        "<luckperms_global_static_context:server>",
+        "<luckperms_group_prefix:default>",
+        "<luckperms_group_suffix:default>",
+        "<luckperms_group_display_name:default>",
+        "<luckperms_group_weight:default>",
+        "<luckperms_loaded_groups>"
+    };
+
+    @Test
+    void allocationsWithinBudgets() throws IOException {
+        final Properties budgets = new Properties();
+        try (InputStream input = AllocationTest.class.getResourceAsStream("/allocation-budgets.properties")) {
+            budgets.load(input);
+        }
+
+        final List<String> failures = new ArrayList<>();
+        for (final Case measured : cases()) {
+            final String budget = budgets.getProperty(measured.name());
+            final long limit = budget == null ? Long.MAX_VALUE : Long.parseLong(budget.trim());
+            long allocated = measured.allocatedBytes();
+            for (int attempt = 1; attempt < ATTEMPTS && allocated > limit; attempt++) {
+                allocated = Math.min(allocated, measured.allocatedBytes());
+            }
+            if (budget == null || allocated > limit) {
+                failures.add(measured.name() + ": " + allocated + " B/op, budget " + (budget == null ? "missing" : budget));
+            }
+        }
+        assertTrue(failures.isEmpty(), () -> "allocation budgets exceeded or missing: " + failures);
+    }
+
+    private static List<Case> cases() {
+        final FakeLuckPerms luckPerms = FakeLuckPerms.builder().build();
+        final CommonExpansion expansion = new CommonExpansion(luckPerms);
+        expansion.registerListeners(new Object());
+        final Expansion built = expansion.commonBuilder().build();
+        final TagResolver resolver = TagResolver.resolver(
+            built.audiencePlaceholders(new FakePlayer(luckPerms.users().get(0).getUniqueId())),
+            built.globalPlaceholders()
+        );
+        final TagResolver control = new ConstantResolver();
+        final MiniMessage miniMessage = MiniMessage.miniMessage();
+
+        final List<Case> cases = new ArrayList<>();
+        for (final String input : PLACEHOLDERS) {
+            cases.add(new Case("placeholder." + input,
+                () -> miniMessage.deserialize(input, resolver),
+                () -> miniMessage.deserialize(input, control)));
+        }
+
+        final Duration duration = Duration.ofDays(400).plusHours(5).plusMinutes(4).plusSeconds(3);
+        final StringBuilder builder = new StringBuilder();
+        durationCases(cases, "YEARS", DurationFormatter.YEARS, duration, builder);
+        durationCases(cases, "DAYS", DurationFormatter.DAYS, duration, builder);
+        durationCases(cases, "SECONDS", DurationFormatter.SECONDS, duration, builder);
+        return cases;
+    }
+
+    private static void durationCases(
+        final List<Case> cases,
+        final String accuracy,
+        final DurationFormatter formatter,
+        final Duration duration,
+        final StringBuilder builder
+    ) {
+        cases.add(new Case("duration." + accuracy, () -> formatter.format(duration), null));
+        cases.add(new Case("duration." + accuracy + ".reusingBuilder", () -> {
+            builder.setLength(0);
+            return formatter.format(duration, builder);
+        }, null));
+    }
+
+    /**
+     * @param operation the measured operation
+     * @param control the same operation without the measured work, subtracted from it
+     */
+    private record Case(String name, Supplier<?> operation, @Nullable Supplier<?> control) {
+        long allocatedBytes() {
+            final long allocated = perOperation(operation);
+            return control == null ? allocated : Math.max(0, allocated - perOperation(control));
+        }
+
+        private static long perOperation(final Supplier<?> operation) {
+            final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            final long thread = Thread.currentThread().getId();
+            Object sink = null;
+            for (int i = 0; i < WARMUP_RUNS; i++) {
+                sink = operation.get();
+            }
+            final long before = threads.getThreadAllocatedBytes(thread);
+            for (int i = 0; i < MEASURED_RUNS; i++) {
+                sink = operation.get();
+            }
+            final long after = threads.getThreadAllocatedBytes(thread);
+            if (sink == null) {
+                throw new IllegalStateException("no result");
+            }
+            return (after - before) / MEASURED_RUNS;
+        }
+    }
+
+    /**
+     * Resolves every luckperms tag to the same empty tag, without reading its arguments.
+     */
+    private static final class ConstantResolver implements TagResolver {
+        private static final Tag EMPTY = Tag.selfClosingInserting(Component.empty());
+
+        @Override
+        public @Nullable Tag resolve(@NotNull String name, @NotNull ArgumentQueue arguments, @NotNull Context ctx) {
+            return has(name) ? EMPTY : null;
+        }
+
+        @Override
+        public boolean has(@NotNull String name) {
+            return name.startsWith(CommonExpansion.NAME + '_');
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package io.github.miniplaceholders.expansion.luckperms.common;
+
+import io.github.miniplaceholders.expansion.luckperms.fake.FakeLuckPerms;
+import io.github.miniplaceholders.expansion.luckperms.fake.FakeNode;
+import io.github.miniplaceholders.expansion.luckperms.fake.FakePlayer;
+import io.github.miniplaceholders.expansion.luckperms.fake.FakeUser;
+import net.kyori.adventure.text.Component;
+import net.luckperms.api.node.Node;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the listeners of {@link ChangeNotifier} are called once per actual change of a value,
+ * after LuckPerms events as well as after the deadline of a countdown, and no longer once cancelled.
+ *
+ * <p>Every refresh runs in order on the single notifier thread, so once a listener receives
+ * a value every refresh scheduled before it has run, which is how the absence of a call is checked.</p>
+ */
+class ChangeNotifierTest {
+    private static final String TOGGLED = "notifier.toggled";
+    private static final String TEMPORARY = "notifier.temporary";
+    private static final long TIMEOUT_SECONDS = 5;
+
+    private final FakeLuckPerms luckPerms = FakeLuckPerms.builder().users(2).build();
+    private final CommonExpansion expansion = new CommonExpansion(luckPerms);
+    private final ChangeNotifier notifier;
+
+    ChangeNotifierTest() {
+        expansion.registerListeners(this);
+        notifier = expansion.changeNotifier(this, expansion.commonBuilder().build());
+    }
+
+    @Test
+    void notifiesOncePerChange() throws InterruptedException {
+        final FakeUser user = luckPerms.users().get(0);
+        final List<Node> initial = List.copyOf(user.getNodes());
+        final BlockingQueue<Component> values = new LinkedBlockingQueue<>();
+        final ChangeNotifier.Subscription subscription = subscribe(user, "has_permission:" + TOGGLED, values);
+        final Component before = subscription.value();
+
+        luckPerms.mutate(user, with(initial, FakeNode.permission(TOGGLED)));
+        final Component granted = next(values);
+        assertNotEquals(before, granted);
+        assertEquals(granted, subscription.value());
+
+        // neither a recalculation without any change nor a change of another user is notified
+        luckPerms.mutate(user, List.copyOf(user.getNodes()));
+        final FakeUser other = luckPerms.users().get(1);
+        luckPerms.mutate(other, with(other.getNodes(), FakeNode.permission(TOGGLED)));
+
+        luckPerms.mutate(user, initial);
+        assertEquals(before, next(values), "notified without a change");
+        assertNull(values.poll(), "notified more than once per change");
+        expansion.shutdown();
+    }
+
+    @Test
+    void notifiesWhenCountdownReachesItsDeadline() throws InterruptedException {
+        final FakeUser user = luckPerms.users().get(0);
+        luckPerms.mutate(user, with(user.getNodes(), FakeNode.temporary(TEMPORARY, Duration.ofHours(1))));
+        final BlockingQueue<Component> values = new LinkedBlockingQueue<>();
+        final ChangeNotifier.Subscription subscription = subscribe(user, "expiry_time:" + TEMPORARY + ":s", values);
+        final Component before = subscription.value();
+
+        // no event, the next second of the countdown is only reached through its deadline
+        final Component after = next(values);
+        assertNotEquals(before, after);
+        assertNotEquals(after, next(values), "deadline not rescheduled after the refresh");
+        expansion.shutdown();
+    }
+
+    @Test
+    void stopsNotifyingOnceCancelled() throws InterruptedException {
+        final FakeUser user = luckPerms.users().get(0);
+        final List<Node> initial = List.copyOf(user.getNodes());
+        luckPerms.mutate(user, with(initial, FakeNode.temporary(TEMPORARY, Duration.ofHours(1))));
+        final BlockingQueue<Component> cancelledValues = new LinkedBlockingQueue<>();
+        final ChangeNotifier.Subscription cancelled = subscribe(user, "expiry_time:" + TEMPORARY + ":s", cancelledValues);
+        final BlockingQueue<Component> values = new LinkedBlockingQueue<>();
+        subscribe(user, "has_permission:" + TOGGLED, values);
+
+        cancelled.cancel();
+        assertFalse(cancelled.isActive());
+        luckPerms.mutate(user, initial);
+        luckPerms.mutate(user, with(initial, FakeNode.permission(TOGGLED)));
+        next(values);
+
+        // longer than the countdown deadline it had scheduled
+        assertNull(cancelledValues.poll(2, TimeUnit.SECONDS), "notified after being cancelled");
+        expansion.shutdown();
+    }
+
+    private ChangeNotifier.Subscription subscribe(
+        final FakeUser user,
+        final String placeholder,
+        final BlockingQueue<Component> values
+    ) throws InterruptedException {
+        final ChangeNotifier.Subscription subscription = notifier.subscribe(new FakePlayer(user.getUniqueId()), placeholder, values::add);
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (!subscription.isReady()) {
+            assertTrue(System.nanoTime() < deadline, "initial value not resolved");
+            Thread.sleep(1);
+        }
+        return subscription;
+    }
+
+    private static Component next(final BlockingQueue<Component> values) throws InterruptedException {
+        final Component value = values.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertNotNull(value, "not notified");
+        return value;
+    }
+
+    private static List<Node> with(final Iterable<Node> nodes, final Node node) {
+        final List<Node> list = new ArrayList<>();
+        nodes.forEach(list::add);
+        list.add(node);
+        return List.copyOf(list);
+    }
+}
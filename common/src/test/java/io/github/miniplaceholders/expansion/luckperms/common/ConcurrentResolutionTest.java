@@ -0,0 +1,215 @@
+package io.github.miniplaceholders.expansion.luckperms.common;
+
+import io.github.miniplaceholders.api.Expansion;
+import io.github.miniplaceholders.expansion.luckperms.fake.FakeInheritanceNode;
+import io.github.miniplaceholders.expansion.luckperms.fake.FakeLuckPerms;
+import io.github.miniplaceholders.expansion.luckperms.fake.FakeNode;
+import io.github.miniplaceholders.expansion.luckperms.fake.FakePlayer;
+import io.github.miniplaceholders.expansion.luckperms.fake.FakeUser;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
+import net.luckperms.api.node.Node;
+import net.luckperms.api.node.types.InheritanceNode;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Resolves every placeholder from several threads while another one keeps switching
+ * the nodes of the same users between two states, like region threads on Folia
+ * or Netty threads on Velocity would.
+ *
+ * <p>The resolving threads check every value belongs to one of the two states,
+ * the mutating thread checks every value of a user matches its new state right after the change,
+ * and once it stops every thread checks the final state, so a cache serving stale data
+ * after a concurrent invalidation fails the test.</p>
+ */
+class ConcurrentResolutionTest {
+    private static final int USERS = 8;
+    private static final int MUTATIONS = 500;
+    private static final int RESOLVING_THREADS = Math.max(4, Runtime.getRuntime().availableProcessors());
+    private static final String TOGGLED = "stress.toggled";
+    private static final String TEMPORARY = "stress.temporary";
+    // Placeholders whose value differs between the two states
+    private static final List<String> MUTATED = List.of(
+        "<luckperms_prefix>",
+        "<luckperms_has_permission:" + TOGGLED + ">",
+        "<luckperms_check_permission:" + TOGGLED + ">",
+        "<luckperms_has_any_permission:stress.missing:" + TOGGLED + ">",
+        "<luckperms_has_all_permissions:benchmark.default.0:" + TOGGLED + ">",
+        "<luckperms_count_permissions:benchmark>",
+        "<luckperms_inherited_groups>",
+        "<luckperms_inherits_group:rank3>",
+        "<luckperms_expiry_time:" + TEMPORARY + ":d>",
+        "<luckperms_inherited_expiry_time:" + TEMPORARY + ":d>"
+    );
+    private static final List<String> PLACEHOLDERS = concat(MUTATED, List.of(
+        "<luckperms_suffix>",
+        "<luckperms_primary_group_name>",
+        "<luckperms_primary_group_weight>",
+        "<luckperms_sort_key>",
+        "<luckperms_inherits_group:default>",
+        "<luckperms_meta:color>",
+        "<luckperms_context:world>",
+        "<luckperms_static_context:server>",
+        "<luckperms_group_expiry_time:vip:w>",
+        "<luckperms_inherited_group_expiry_time:vip:w>",
+        "<luckperms_global_static_context:server>",
+        "<luckperms_group_prefix:default>",
+        "<luckperms_group_suffix:default>",
+        "<luckperms_group_display_name:default>",
+        "<luckperms_group_weight:default>",
+        "<luckperms_loaded_groups>"
+    ));
+
+    private final MiniMessage miniMessage = MiniMessage.miniMessage();
+
+    @Test
+    void concurrentResolutionNeverServesStaleValues() throws InterruptedException {
+        final FakeLuckPerms luckPerms = FakeLuckPerms.builder().users(USERS).build();
+        final CommonExpansion expansion = new CommonExpansion(luckPerms);
+        expansion.registerListeners(this);
+        final Expansion built = expansion.commonBuilder().build();
+
+        final TagResolver[] resolvers = new TagResolver[USERS];
+        final List<List<Node>> initial = new ArrayList<>();
+        final List<List<Node>> mutated = new ArrayList<>();
+        final List<List<Component>> initialValues = new ArrayList<>();
+        final List<List<Component>> mutatedValues = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            final FakeUser user = luckPerms.users().get(i);
+            resolvers[i] = TagResolver.resolver(
+                built.audiencePlaceholders(new FakePlayer(user.getUniqueId())),
+                built.globalPlaceholders()
+            );
+            initial.add(List.copyOf(user.getNodes()));
+            mutated.add(mutate(user.getNodes()));
+
+            luckPerms.mutate(user, mutated.get(i));
+            mutatedValues.add(resolveAll(resolvers[i]));
+            luckPerms.mutate(user, initial.get(i));
+            initialValues.add(resolveAll(resolvers[i]));
+            for (final String placeholder : MUTATED) {
+                final int index = PLACEHOLDERS.indexOf(placeholder);
+                assertNotEquals(initialValues.get(i).get(index), mutatedValues.get(i).get(index),
+                    () -> placeholder + " does not change between the states");
+            }
+        }
+
+        final boolean[] isMutated = new boolean[USERS];
+        final AtomicBoolean mutating = new AtomicBoolean(true);
+        final Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        final CountDownLatch done = new CountDownLatch(RESOLVING_THREADS + 1);
+
+        final Thread mutator = new Thread(() -> {
+            try {
+                for (int n = 0; n < MUTATIONS && failures.isEmpty(); n++) {
+                    final int i = n % USERS;
+                    isMutated[i] = !isMutated[i];
+                    luckPerms.mutate(luckPerms.users().get(i), isMutated[i] ? mutated.get(i) : initial.get(i));
+                    final List<Component> expected = isMutated[i] ? mutatedValues.get(i) : initialValues.get(i);
+                    assertEquals(expected, resolveAll(resolvers[i]), "stale values right after a change");
+                }
+            } catch (final Throwable e) {
+                failures.add(e);
+            } finally {
+                mutating.set(false);
+                done.countDown();
+            }
+        }, "mutator");
+
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < RESOLVING_THREADS; t++) {
+            threads.add(new Thread(() -> {
+                try {
+                    final ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (mutating.get()) {
+                        final int i = random.nextInt(USERS);
+                        final int p = random.nextInt(PLACEHOLDERS.size());
+                        final Component value = resolve(PLACEHOLDERS.get(p), resolvers[i]);
+                        assertTrue(value.equals(initialValues.get(i).get(p)) || value.equals(mutatedValues.get(i).get(p)),
+                            () -> PLACEHOLDERS.get(p) + " resolved to a value of neither state: " + value);
+                    }
+                } catch (final Throwable e) {
+                    failures.add(e);
+                    mutating.set(false);
+                } finally {
+                    done.countDown();
+                }
+            }, "resolver-" + t));
+        }
+
+        threads.forEach(Thread::start);
+        mutator.start();
+        assertTrue(done.await(2, TimeUnit.MINUTES), "threads did not finish");
+        assertTrue(failures.isEmpty(), () -> "concurrent resolution failed: " + failures.peek());
+
+        // every thread sees the final state of every user
+        final CountDownLatch checked = new CountDownLatch(RESOLVING_THREADS);
+        for (int t = 0; t < RESOLVING_THREADS; t++) {
+            new Thread(() -> {
+                try {
+                    for (int i = 0; i < USERS; i++) {
+                        final List<Component> expected = isMutated[i] ? mutatedValues.get(i) : initialValues.get(i);
+                        assertEquals(expected, resolveAll(resolvers[i]), "stale values after the changes");
+                    }
+                } catch (final Throwable e) {
+                    failures.add(e);
+                } finally {
+                    checked.countDown();
+                }
+            }, "checker-" + t).start();
+        }
+        assertTrue(checked.await(1, TimeUnit.MINUTES), "threads did not finish");
+        assertTrue(failures.isEmpty(), () -> "final state check failed: " + failures.peek());
+        expansion.shutdown();
+    }
+
+    /**
+     * Replaces the inheritance of the top rank by the one below it, grants a permission and adds a temporary one.
+     */
+    private static List<Node> mutate(final Iterable<Node> nodes) {
+        final List<Node> mutated = new ArrayList<>();
+        for (final Node node : nodes) {
+            if (node instanceof InheritanceNode inheritance && inheritance.getGroupName().equals("rank3")) {
+                mutated.add(FakeInheritanceNode.of("rank2"));
+            } else {
+                mutated.add(node);
+            }
+        }
+        mutated.add(FakeNode.permission(TOGGLED));
+        mutated.add(FakeNode.temporary(TEMPORARY, Duration.ofDays(10).plusHours(12)));
+        return List.copyOf(mutated);
+    }
+
+    private List<Component> resolveAll(final TagResolver resolver) {
+        final List<Component> values = new ArrayList<>(PLACEHOLDERS.size());
+        for (final String placeholder : PLACEHOLDERS) {
+            values.add(resolve(placeholder, resolver));
+        }
+        return values;
+    }
+
+    private Component resolve(final String placeholder, final TagResolver resolver) {
+        return miniMessage.deserialize(placeholder, resolver);
+    }
+
+    private static List<String> concat(final List<String> first, final List<String> second) {
+        final List<String> list = new ArrayList<>(first);
+        list.addAll(second);
+        return List.copyOf(list);
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.miniplaceholders.expansion.luckperms.fake;
+
+import net.luckperms.api.cacheddata.CachedDataManager;
+import net.luckperms.api.cacheddata.CachedMetaData;
+import net.luckperms.api.cacheddata.CachedPermissionData;
+import net.luckperms.api.query.QueryOptions;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * {@link CachedDataManager} holding a single precalculated state,
+ * whatever the query options are
+ */
+public final class FakeCachedDataManager implements CachedDataManager {
+    private volatile CachedMetaData metaData;
+    private volatile CachedPermissionData permissionData;
+
+    public FakeCachedDataManager(CachedMetaData metaData, CachedPermissionData permissionData) {
+        this.metaData = metaData;
+        this.permissionData = permissionData;
+    }
+
+    public void update(CachedMetaData metaData, CachedPermissionData permissionData) {
+        this.metaData = metaData;
+        this.permissionData = permissionData;
+    }
+
+    @Override
+    public @NotNull Container<CachedPermissionData> permissionData() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public @NotNull Container<CachedMetaData> metaData() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public @NotNull CachedPermissionData getPermissionData(@NotNull QueryOptions queryOptions) {
+        return permissionData;
+    }
+
+    @Override
+    public @NotNull CachedMetaData getMetaData(@NotNull QueryOptions queryOptions) {
+        return metaData;
+    }
+
+    @Override
+    public @NotNull CachedPermissionData getPermissionData() {
+        return permissionData;
+    }
+
+    @Override
+    public @NotNull CachedMetaData getMetaData() {
+        return metaData;
+    }
+
+    @Override
+    public void invalidate() {
+    }
+
+    @Override
+    public void invalidatePermissionCalculators() {
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.miniplaceholders.expansion.luckperms.fake;
+
+import net.luckperms.api.cacheddata.CachedMetaData;
+import net.luckperms.api.cacheddata.Result;
+import net.luckperms.api.metastacking.MetaStackDefinition;
+import net.luckperms.api.node.types.MetaNode;
+import net.luckperms.api.node.types.PrefixNode;
+import net.luckperms.api.node.types.SuffixNode;
+import net.luckperms.api.query.QueryOptions;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Precalculated {@link CachedMetaData}
+ */
+public record FakeCachedMetaData(
+    @NotNull QueryOptions getQueryOptions,
+    @Nullable String prefix,
+    @Nullable String suffix,
+    @Nullable String getPrimaryGroup,
+    @NotNull Map<String, String> meta
+) implements CachedMetaData {
+
+    @Override
+    public @NotNull Result<String, MetaNode> queryMetaValue(@NotNull String key) {
+        return new FakeResult<>(meta.get(key));
+    }
+
+    @Override
+    public @NotNull Result<String, PrefixNode> queryPrefix() {
+        return new FakeResult<>(prefix);
+    }
+
+    @Override
+    public @NotNull Result<String, SuffixNode> querySuffix() {
+        return new FakeResult<>(suffix);
+    }
+
+    @Override
+    public @NotNull Map<String, List<String>> getMeta() {
+        final Map<String, List<String>> map = new TreeMap<>();
+        meta.forEach((key, value) -> map.put(key, List.of(value)));
+        return map;
+    }
+
+    @Override
+    public @NotNull SortedMap<Integer, String> getPrefixes() {
+        final SortedMap<Integer, String> map = new TreeMap<>();
+        if (prefix != null) map.put(0, prefix);
+        return map;
+    }
+
+    @Override
+    public @NotNull SortedMap<Integer, String> getSuffixes() {
+        final SortedMap<Integer, String> map = new TreeMap<>();
+        if (suffix != null) map.put(0, suffix);
+        return map;
+    }
+
+    @Override
+    public @NotNull MetaStackDefinition getPrefixStackDefinition() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public @NotNull MetaStackDefinition getSuffixStackDefinition() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,28 @@
+package io.github.miniplaceholders.expansion.luckperms.fake;
+
+import net.luckperms.api.cacheddata.CachedPermissionData;
+import net.luckperms.api.cacheddata.Result;
+import net.luckperms.api.node.Node;
+import net.luckperms.api.query.QueryOptions;
+import net.luckperms.api.util.Tristate;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+
+/**
+ * Precalculated {@link CachedPermissionData}
+ */
+public record FakeCachedPermissionData(
+    @NotNull QueryOptions getQueryOptions,
+    @NotNull Map<String, Boolean> getPermissionMap
+) implements CachedPermissionData {
+
+    @Override
+    public @NotNull Result<Tristate, Node> queryPermission(@NotNull String permission) {
+        return new FakeResult<>(Tristate.of(getPermissionMap.get(permission)));
+    }
+
+    @Override
+    public void invalidateCache() {
+    }
+}
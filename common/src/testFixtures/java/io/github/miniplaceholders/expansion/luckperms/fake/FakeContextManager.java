@@ -0,0 +1,76 @@
+package io.github.miniplaceholders.expansion.luckperms.fake;
+
+import net.luckperms.api.context.ContextCalculator;
+import net.luckperms.api.context.ContextManager;
+import net.luckperms.api.context.ContextSetFactory;
+import net.luckperms.api.context.ImmutableContextSet;
+import net.luckperms.api.model.user.User;
+import net.luckperms.api.query.QueryMode;
+import net.luckperms.api.query.QueryOptions;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * {@link ContextManager} returning the contexts of the user query options
+ */
+public final class FakeContextManager implements ContextManager {
+    private final ImmutableContextSet staticContext;
+
+    public FakeContextManager(String server) {
+        this.staticContext = FakeContextSet.of(Map.of("server", server));
+    }
+
+    @Override
+    public @NotNull ImmutableContextSet getContext(@NotNull Object subject) {
+        return subject instanceof User user ? user.getQueryOptions().context() : staticContext;
+    }
+
+    @Override
+    public @NotNull Optional<ImmutableContextSet> getContext(@NotNull User user) {
+        return Optional.of(user.getQueryOptions().context());
+    }
+
+    @Override
+    public @NotNull ImmutableContextSet getStaticContext() {
+        return staticContext;
+    }
+
+    @Override
+    public QueryOptions.@NotNull Builder queryOptionsBuilder(@NotNull QueryMode mode) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public @NotNull QueryOptions getQueryOptions(@NotNull Object subject) {
+        return subject instanceof User user ? user.getQueryOptions() : getStaticQueryOptions();
+    }
+
+    @Override
+    public @NotNull Optional<QueryOptions> getQueryOptions(@NotNull User user) {
+        return Optional.of(user.getQueryOptions());
+    }
+
+    @Override
+    public @NotNull QueryOptions getStaticQueryOptions() {
+        return new FakeQueryOptions(staticContext);
+    }
+
+    @Override
+    public void registerCalculator(@NotNull ContextCalculator<?> calculator) {
+    }
+
+    @Override
+    public void unregisterCalculator(@NotNull ContextCalculator<?> calculator) {
+    }
+
+    @Override
+    public void signalContextUpdate(@NotNull Object subject) {
+    }
+
+    @Override
+    public @NotNull ContextSetFactory getContextSetFactory() {
+        throw new UnsupportedOperationException();
+    }
+}
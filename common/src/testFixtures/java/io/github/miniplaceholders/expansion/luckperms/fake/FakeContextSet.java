@@ -0,0 +1,127 @@
+package io.github.miniplaceholders.expansion.luckperms.fake;
+
+import net.luckperms.api.context.Context;
+import net.luckperms.api.context.ContextSatisfyMode;
+import net.luckperms.api.context.ContextSet;
+import net.luckperms.api.context.ImmutableContextSet;
+import net.luckperms.api.context.MutableContextSet;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable in-memory {@link ImmutableContextSet}
+ */
+public final class FakeContextSet implements ImmutableContextSet {
+    public static final FakeContextSet EMPTY = new FakeContextSet(Map.of());
+
+    private final Map<String, Set<String>> contexts;
+
+    private FakeContextSet(Map<String, Set<String>> contexts) {
+        this.contexts = contexts;
+    }
+
+    public static FakeContextSet of(Map<String, String> contexts) {
+        final Map<String, Set<String>> map = new HashMap<>();
+        contexts.forEach((key, value) -> map.put(key, Set.of(value)));
+        return new FakeContextSet(Map.copyOf(map));
+    }
+
+    @Override
+    public boolean isImmutable() {
+        return true;
+    }
+
+    @Override
+    @Deprecated
+    public @NotNull ImmutableContextSet immutableCopy() {
+        return this;
+    }
+
+    @Override
+    public @NotNull MutableContextSet mutableCopy() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public @NotNull Set<Context> toSet() {
+        final Set<Context> set = new HashSet<>();
+        contexts.forEach((key, values) -> values.forEach(value -> set.add(new FakeContext(key, value))));
+        return Collections.unmodifiableSet(set);
+    }
+
+    @Override
+    public @NotNull Map<String, Set<String>> toMap() {
+        return contexts;
+    }
+
+    @Override
+    @Deprecated
+    public @NotNull Map<String, String> toFlattenedMap() {
+        final Map<String, String> map = new HashMap<>();
+        contexts.forEach((key, values) -> map.put(key, values.iterator().next()));
+        return map;
+    }
+
+    @Override
+    public @NotNull Iterator<Context> iterator() {
+        return toSet().iterator();
+    }
+
+    @Override
+    public boolean containsKey(@NotNull String key) {
+        return contexts.containsKey(key);
+    }
+
+    @Override
+    public @NotNull Set<String> getValues(@NotNull String key) {
+        return contexts.getOrDefault(key, Set.of());
+    }
+
+    @Override
+    public boolean contains(@NotNull String key, @NotNull String value) {
+        return getValues(key).contains(value);
+    }
+
+    @Override
+    public boolean isSatisfiedBy(@NotNull ContextSet other, @NotNull ContextSatisfyMode mode) {
+        for (final Map.Entry<String, Set<String>> entry : contexts.entrySet()) {
+            final Set<String> values = other.getValues(entry.getKey());
+            final boolean satisfied = mode == ContextSatisfyMode.ALL_VALUES_PER_KEY
+                ? values.containsAll(entry.getValue())
+                : entry.getValue().stream().anyMatch(values::contains);
+            if (!satisfied) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return contexts.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return contexts.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof FakeContextSet other && contexts.equals(other.contexts);
+    }
+
+    @Override
+    public int hashCode() {
+        return contexts.hashCode();
+    }
+
+    private record FakeContext(String getKey, String getValue) implements Context {
+    }
+}
@@ -0,0 +1,87 @@
+package io.github.miniplaceholders.expansion.luckperms.fake;
+
+import net.luckperms.api.event.EventBus;
+import net.luckperms.api.event.EventSubscription;
+import net.luckperms.api.event.LuckPermsEvent;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Synchronous {@link EventBus}, events are posted manually through {@link #post(LuckPermsEvent)}
+ */
+public final class FakeEventBus implements EventBus {
+    private final CopyOnWriteArrayList<Subscription<?>> subscriptions = new CopyOnWriteArrayList<>();
+
+    /**
+     * Calls every active subscription listening to the type of the event.
+     */
+    public void post(LuckPermsEvent event) {
+        for (final Subscription<?> subscription : subscriptions) {
+            subscription.accept(event);
+        }
+    }
+
+    @Override
+    public <T extends LuckPermsEvent> @NotNull EventSubscription<T> subscribe(@NotNull Class<T> eventClass, @NotNull Consumer<? super T> handler) {
+        final Subscription<T> subscription = new Subscription<>(eventClass, handler);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    @Override
+    public <T extends LuckPermsEvent> @NotNull EventSubscription<T> subscribe(@NotNull Object plugin, @NotNull Class<T> eventClass, @NotNull Consumer<? super T> handler) {
+        return subscribe(eventClass, handler);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends LuckPermsEvent> @NotNull Set<EventSubscription<T>> getSubscriptions(@NotNull Class<T> eventClass) {
+        final Set<EventSubscription<T>> set = new HashSet<>();
+        for (final Subscription<?> subscription : subscriptions) {
+            if (subscription.eventClass == eventClass) {
+                set.add((EventSubscription<T>) subscription);
+            }
+        }
+        return set;
+    }
+
+    private final class Subscription<T extends LuckPermsEvent> implements EventSubscription<T> {
+        private final Class<T> eventClass;
+        private final Consumer<? super T> handler;
+
+        private Subscription(Class<T> eventClass, Consumer<? super T> handler) {
+            this.eventClass = eventClass;
+            this.handler = handler;
+        }
+
+        private void accept(LuckPermsEvent event) {
+            if (eventClass.isInstance(event)) {
+                handler.accept(eventClass.cast(event));
+            }
+        }
+
+        @Override
+        public @NotNull Class<T> getEventClass() {
+            return eventClass;
+        }
+
+        @Override
+        public boolean isActive() {
+            return subscriptions.contains(this);
+        }
+
+        @Override
+        public void close() {
+            subscriptions.remove(this);
+        }
+
+        @Override
+        public @NotNull Consumer<? super T> getHandler() {
+            return handler;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.miniplaceholders.expansion.luckperms.fake;
+
+import net.luckperms.api.model.group.Group;
+import net.luckperms.api.node.Node;
+import net.luckperms.api.query.QueryOptions;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+
+/**
+ * In-memory {@link Group}
+ */
+public final class FakeGroup extends FakePermissionHolder implements Group {
+    private final String name;
+    private final String displayName;
+    private final int weight;
+    private final String prefix;
+
+    public FakeGroup(FakeGroupManager groupManager, String name, @Nullable String displayName, int weight,
+                     @Nullable String prefix, List<Node> nodes) {
+        super(groupManager, nodes, FakeQueryOptions.STATIC);
+        this.name = name;
+        this.displayName = displayName;
+        this.weight = weight;
+        this.prefix = prefix;
+        recalculate();
+    }
+
+    @Nullable String prefix() {
+        return prefix;
+    }
+
+    @Override
+    public void recalculate() {
+        final QueryOptions queryOptions = getQueryOptions();
+        cachedData().update(
+            new FakeCachedMetaData(queryOptions, prefix, null, null, Map.of("weight", Integer.toString(weight))),
+            new FakeCachedPermissionData(queryOptions, FakeUser.permissionMap(resolveInheritedNodes(queryOptions)))
+        );
+    }
+
+    @Override
+    public @NotNull Identifier getIdentifier() {
+        return new FakeIdentifier(name, Identifier.GROUP_TYPE);
+    }
+
+    @Override
+    public @NotNull String getName() {
+        return name;
+    }
+
+    @Override
+    public @Nullable String getDisplayName() {
+        return displayName;
+    }
+
+    @Override
+    public @Nullable String getDisplayName(@NotNull QueryOptions queryOptions) {
+        return displayName;
+    }
+
+    @Override
+    public @NotNull OptionalInt getWeight() {
+        return OptionalInt.of(weight);
+    }
+
+    record FakeIdentifier(String getName, String getType) implements Identifier {
+    }
+}
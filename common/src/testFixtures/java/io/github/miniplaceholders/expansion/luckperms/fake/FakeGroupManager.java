@@ -0,0 +1,79 @@
+package io.github.miniplaceholders.expansion.luckperms.fake;
+
+import net.luckperms.api.model.group.Group;
+import net.luckperms.api.model.group.GroupManager;
+import net.luckperms.api.node.HeldNode;
+import net.luckperms.api.node.Node;
+import net.luckperms.api.node.matcher.NodeMatcher;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link GroupManager} over the groups registered in memory
+ */
+public final class FakeGroupManager implements GroupManager {
+    private final Map<String, FakeGroup> groups = new ConcurrentHashMap<>();
+
+    public void register(FakeGroup group) {
+        groups.put(group.getName(), group);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Group> createAndLoadGroup(@NotNull String name) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Optional<Group>> loadGroup(@NotNull String name) {
+        return CompletableFuture.completedFuture(Optional.ofNullable(groups.get(name)));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Void> saveGroup(@NotNull Group group) {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Void> deleteGroup(@NotNull Group group) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Void> loadAllGroups() {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public <T extends Node> @NotNull CompletableFuture<Map<String, Collection<T>>> searchAll(@NotNull NodeMatcher<? extends T> matcher) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    @Deprecated
+    public @NotNull CompletableFuture<List<HeldNode<String>>> getWithPermission(@NotNull String permission) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public @Nullable Group getGroup(@NotNull String name) {
+        return groups.get(name);
+    }
+
+    @Override
+    public @NotNull Set<Group> getLoadedGroups() {
+        return Set.copyOf(groups.values());
+    }
+
+    @Override
+    public boolean isLoaded(@NotNull String name) {
+        return groups.containsKey(name);
+    }
+}
@@ -0,0 +1,44 @@
+package io.github.miniplaceholders.expansion.luckperms.fake;
+
+import net.luckperms.api.node.NodeType;
+import net.luckperms.api.node.types.InheritanceNode;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * {@link InheritanceNode} of a group
+ */
+public final class FakeInheritanceNode extends FakeNode implements InheritanceNode {
+    private final String groupName;
+
+    public FakeInheritanceNode(String groupName, @Nullable Instant expiry) {
+        super("group." + groupName, true, expiry, FakeContextSet.EMPTY);
+        this.groupName = groupName;
+    }
+
+    public static FakeInheritanceNode of(String groupName) {
+        return new FakeInheritanceNode(groupName, null);
+    }
+
+    public static FakeInheritanceNode temporary(String groupName, Duration duration) {
+        return new FakeInheritanceNode(groupName, Instant.now().plus(duration));
+    }
+
+    @Override
+    public @NotNull NodeType<InheritanceNode> getType() {
+        return NodeType.INHERITANCE;
+    }
+
+    @Override
+    public @NotNull String getGroupName() {
+        return groupName;
+    }
+
+    @Override
+    public @NotNull Builder toBuilder() {
+        throw new UnsupportedOperationException();
+    }
+}
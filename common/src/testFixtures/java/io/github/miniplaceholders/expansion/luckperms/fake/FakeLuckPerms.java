@@ -0,0 +1,230 @@
+package io.github.miniplaceholders.expansion.luckperms.fake;
+
+import net.luckperms.api.LuckPerms;
+import net.luckperms.api.actionlog.ActionLogger;
+import net.luckperms.api.context.ContextManager;
+import net.luckperms.api.messaging.MessagingService;
+import net.luckperms.api.messenger.MessengerProvider;
+import net.luckperms.api.metastacking.MetaStackFactory;
+import net.luckperms.api.model.group.GroupManager;
+import net.luckperms.api.model.user.UserManager;
+import net.luckperms.api.node.Node;
+import net.luckperms.api.node.NodeBuilderRegistry;
+import net.luckperms.api.node.matcher.NodeMatcherFactory;
+import net.luckperms.api.platform.Platform;
+import net.luckperms.api.platform.PlayerAdapter;
+import net.luckperms.api.platform.PluginMetadata;
+import net.luckperms.api.query.QueryOptionsRegistry;
+import net.luckperms.api.track.TrackManager;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * In-memory stand-in of {@link LuckPerms} with a configurable amount of users, nodes and groups.
+ *
+ * <p>Groups form a single chain {@code default <- rank1 <- ... <- rankN}, which is also the {@code ranks} track, and every user
+ * inherits the top of it, plus a temporary {@code vip} group and some temporary permissions.</p>
+ */
+public final class FakeLuckPerms implements LuckPerms {
+    public static final String SERVER = "benchmark";
+
+    private final FakeUserManager userManager = new FakeUserManager();
+    private final FakeGroupManager groupManager = new FakeGroupManager();
+    private final FakeTrackManager trackManager = new FakeTrackManager();
+    private final FakeContextManager contextManager = new FakeContextManager(SERVER);
+    private final FakeEventBus eventBus = new FakeEventBus();
+    private final List<FakeUser> users = new ArrayList<>();
+
+    private FakeLuckPerms() {
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public List<FakeUser> users() {
+        return users;
+    }
+
+    /**
+     * Replaces the nodes of a user and posts its recalculation, like a LuckPerms command would.
+     */
+    public void mutate(FakeUser user, List<Node> nodes) {
+        user.setNodes(nodes);
+        eventBus.post(new FakeUserDataRecalculateEvent(this, user));
+    }
+
+    @Override
+    public @NotNull String getServerName() {
+        return SERVER;
+    }
+
+    @Override
+    public @NotNull UserManager getUserManager() {
+        return userManager;
+    }
+
+    @Override
+    public @NotNull GroupManager getGroupManager() {
+        return groupManager;
+    }
+
+    @Override
+    public @NotNull TrackManager getTrackManager() {
+        return trackManager;
+    }
+
+    @Override
+    public <T> @NotNull PlayerAdapter<T> getPlayerAdapter(@NotNull Class<T> userClass) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public @NotNull Platform getPlatform() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public @NotNull PluginMetadata getPluginMetadata() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public @NotNull FakeEventBus getEventBus() {
+        return eventBus;
+    }
+
+    @Override
+    public @NotNull Optional<MessagingService> getMessagingService() {
+        return Optional.empty();
+    }
+
+    @Override
+    public @NotNull ActionLogger getActionLogger() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public @NotNull ContextManager getContextManager() {
+        return contextManager;
+    }
+
+    @Override
+    public @NotNull MetaStackFactory getMetaStackFactory() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Void> runUpdateTask() {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public void registerMessengerProvider(@NotNull MessengerProvider messengerProvider) {
+    }
+
+    @Override
+    public @NotNull NodeBuilderRegistry getNodeBuilderRegistry() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public @NotNull QueryOptionsRegistry getQueryOptionsRegistry() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public @NotNull NodeMatcherFactory getNodeMatcherFactory() {
+        throw new UnsupportedOperationException();
+    }
+
+    public static final class Builder {
+        private int users = 1;
+        private int nodesPerUser = 50;
+        private int nodesPerGroup = 50;
+        private int temporaryNodes = 5;
+        private int inheritanceDepth = 3;
+
+        private Builder() {
+        }
+
+        public Builder users(int users) {
+            this.users = users;
+            return this;
+        }
+
+        public Builder nodesPerUser(int nodesPerUser) {
+            this.nodesPerUser = nodesPerUser;
+            return this;
+        }
+
+        public Builder nodesPerGroup(int nodesPerGroup) {
+            this.nodesPerGroup = nodesPerGroup;
+            return this;
+        }
+
+        /**
+         * Amount of the user nodes that have an expiry, named {@code benchmark.temporary.<n>}
+         */
+        public Builder temporaryNodes(int temporaryNodes) {
+            this.temporaryNodes = temporaryNodes;
+            return this;
+        }
+
+        /**
+         * Amount of groups above {@code default} in the inheritance chain
+         */
+        public Builder inheritanceDepth(int inheritanceDepth) {
+            this.inheritanceDepth = inheritanceDepth;
+            return this;
+        }
+
+        public FakeLuckPerms build() {
+            final FakeLuckPerms luckPerms = new FakeLuckPerms();
+            final FakeGroupManager groupManager = luckPerms.groupManager;
+
+            final List<String> track = new ArrayList<>();
+            String parent = null;
+            for (int depth = 0; depth <= inheritanceDepth; depth++) {
+                final String name = depth == 0 ? "default" : "rank" + depth;
+                final List<Node> nodes = new ArrayList<>();
+                if (parent != null) {
+                    nodes.add(FakeInheritanceNode.of(parent));
+                }
+                for (int i = 0; i < nodesPerGroup; i++) {
+                    nodes.add(FakeNode.permission("benchmark." + name + "." + i));
+                }
+                groupManager.register(new FakeGroup(groupManager, name, "&6" + name, depth * 10,
+                    "&7[&6" + name + "&7] &f", nodes));
+                track.add(name);
+                parent = name;
+            }
+            luckPerms.trackManager.register(new FakeTrack("ranks", track));
+            groupManager.register(new FakeGroup(groupManager, "vip", "&bVIP", 5, null, List.of()));
+
+            for (int u = 0; u < users; u++) {
+                final List<Node> nodes = new ArrayList<>();
+                nodes.add(FakeInheritanceNode.of(parent));
+                nodes.add(FakeInheritanceNode.temporary("vip", Duration.ofDays(30).plusHours(u % 24)));
+                for (int i = 0; i < nodesPerUser; i++) {
+                    nodes.add(i < temporaryNodes
+                        ? FakeNode.temporary("benchmark.temporary." + i, Duration.ofHours(i + 1).plusMinutes(u % 60))
+                        : FakeNode.permission("benchmark.user." + i));
+                }
+                final FakeUser user = new FakeUser(groupManager, UUID.randomUUID(), "player" + u, parent,
+                    Map.of("color", "<gold>", "suffix", "&7 *"), nodes,
+                    new FakeQueryOptions(FakeContextSet.of(Map.of("server", SERVER, "world", "world" + (u % 3)))));
+                luckPerms.userManager.register(user);
+                luckPerms.users.add(user);
+            }
+            return luckPerms;
+        }
+    }
+}
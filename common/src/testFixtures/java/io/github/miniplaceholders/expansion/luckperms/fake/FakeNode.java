@@ -0,0 +1,101 @@
+package io.github.miniplaceholders.expansion.luckperms.fake;
+
+import net.luckperms.api.context.ImmutableContextSet;
+import net.luckperms.api.node.Node;
+import net.luckperms.api.node.NodeBuilder;
+import net.luckperms.api.node.NodeEqualityPredicate;
+import net.luckperms.api.node.NodeType;
+import net.luckperms.api.node.metadata.NodeMetadataKey;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Plain permission {@link Node}
+ */
+public class FakeNode implements Node {
+    private final String key;
+    private final boolean value;
+    private final Instant expiry;
+    private final ImmutableContextSet contexts;
+
+    public FakeNode(String key, boolean value, @Nullable Instant expiry, ImmutableContextSet contexts) {
+        this.key = key;
+        this.value = value;
+        this.expiry = expiry;
+        this.contexts = contexts;
+    }
+
+    public static FakeNode permission(String key) {
+        return new FakeNode(key, true, null, FakeContextSet.EMPTY);
+    }
+
+    public static FakeNode temporary(String key, Duration duration) {
+        return new FakeNode(key, true, Instant.now().plus(duration), FakeContextSet.EMPTY);
+    }
+
+    @Override
+    public @NotNull NodeType<?> getType() {
+        return NodeType.PERMISSION;
+    }
+
+    @Override
+    public @NotNull String getKey() {
+        return key;
+    }
+
+    @Override
+    public boolean getValue() {
+        return value;
+    }
+
+    @Override
+    public @NotNull Collection<String> resolveShorthand() {
+        return List.of();
+    }
+
+    @Override
+    public boolean hasExpiry() {
+        return expiry != null;
+    }
+
+    @Override
+    public @Nullable Instant getExpiry() {
+        return expiry;
+    }
+
+    @Override
+    public boolean hasExpired() {
+        return expiry != null && expiry.isBefore(Instant.now());
+    }
+
+    @Override
+    public @Nullable Duration getExpiryDuration() {
+        return expiry == null ? null : Duration.between(Instant.now(), expiry);
+    }
+
+    @Override
+    public @NotNull ImmutableContextSet getContexts() {
+        return contexts;
+    }
+
+    @Override
+    public <T> @NotNull Optional<T> getMetadata(@NotNull NodeMetadataKey<T> key) {
+        return Optional.empty();
+    }
+
+    @Override
+    public boolean equals(@NotNull Node other, @NotNull NodeEqualityPredicate predicate) {
+        return equals(other);
+    }
+
+    @Override
+    public @NotNull NodeBuilder<?, ?> toBuilder() {
+        throw new UnsupportedOperationException();
+    }
+}
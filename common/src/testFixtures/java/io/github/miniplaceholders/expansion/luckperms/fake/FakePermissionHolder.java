@@ -0,0 +1,134 @@
+package io.github.miniplaceholders.expansion.luckperms.fake;
+
+import net.luckperms.api.cacheddata.CachedDataManager;
+import net.luckperms.api.model.PermissionHolder;
+import net.luckperms.api.model.data.DataType;
+import net.luckperms.api.model.data.NodeMap;
+import net.luckperms.api.model.group.Group;
+import net.luckperms.api.node.Node;
+import net.luckperms.api.node.types.InheritanceNode;
+import net.luckperms.api.query.QueryOptions;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedSet;
+
+/**
+ * Base of the fake users and groups, resolving inheritance on every call like LuckPerms does
+ */
+public abstract class FakePermissionHolder implements PermissionHolder {
+    protected final FakeGroupManager groupManager;
+    private final FakeCachedDataManager cachedData;
+    private volatile List<Node> nodes;
+    private volatile QueryOptions queryOptions;
+
+    protected FakePermissionHolder(FakeGroupManager groupManager, List<Node> nodes, QueryOptions queryOptions) {
+        this.groupManager = groupManager;
+        this.nodes = List.copyOf(nodes);
+        this.queryOptions = queryOptions;
+        this.cachedData = new FakeCachedDataManager(null, null);
+    }
+
+    /**
+     * Replaces the nodes of this holder and recalculates its cached data.
+     */
+    public void setNodes(List<Node> nodes) {
+        this.nodes = List.copyOf(nodes);
+        recalculate();
+    }
+
+    public void setQueryOptions(QueryOptions queryOptions) {
+        this.queryOptions = queryOptions;
+    }
+
+    /**
+     * Recalculates the cached data of this holder from its resolved nodes.
+     */
+    public abstract void recalculate();
+
+    protected final FakeCachedDataManager cachedData() {
+        return cachedData;
+    }
+
+    @Override
+    public @NotNull String getFriendlyName() {
+        return getIdentifier().getName();
+    }
+
+    @Override
+    public @NotNull QueryOptions getQueryOptions() {
+        return queryOptions;
+    }
+
+    @Override
+    public @NotNull CachedDataManager getCachedData() {
+        return cachedData;
+    }
+
+    @Override
+    public @NotNull NodeMap getData(@NotNull DataType dataType) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public @NotNull NodeMap data() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public @NotNull NodeMap transientData() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public @NotNull Collection<Node> getNodes() {
+        return nodes;
+    }
+
+    @Override
+    public @NotNull SortedSet<Node> getDistinctNodes() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public @NotNull Collection<Node> resolveInheritedNodes(@NotNull QueryOptions queryOptions) {
+        final List<Node> resolved = new ArrayList<>(nodes);
+        for (final Group group : getInheritedGroups(queryOptions)) {
+            resolved.addAll(group.getNodes());
+        }
+        return resolved;
+    }
+
+    @Override
+    public @NotNull SortedSet<Node> resolveDistinctInheritedNodes(@NotNull QueryOptions queryOptions) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public @NotNull Collection<Group> getInheritedGroups(@NotNull QueryOptions queryOptions) {
+        final Set<Group> groups = new LinkedHashSet<>();
+        collectGroups(this, queryOptions, groups);
+        return new ArrayList<>(groups);
+    }
+
+    private void collectGroups(PermissionHolder holder, QueryOptions queryOptions, Set<Group> groups) {
+        for (final Node node : holder.getNodes()) {
+            if (!(node instanceof InheritanceNode inheritance) || node.hasExpired()
+                || !queryOptions.satisfies(node.getContexts())) {
+                continue;
+            }
+            final Group group = groupManager.getGroup(inheritance.getGroupName());
+            if (group != null && groups.add(group)) {
+                collectGroups(group, queryOptions, groups);
+            }
+        }
+    }
+
+    @Override
+    public void auditTemporaryNodes() {
+    }
+}
@@ -0,0 +1,24 @@
+package io.github.miniplaceholders.expansion.luckperms.fake;
+
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.identity.Identity;
+import net.kyori.adventure.pointer.Pointers;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.UUID;
+
+/**
+ * {@link Audience} exposing only the {@link Identity#UUID} pointer of a player
+ */
+public final class FakePlayer implements Audience {
+    private final Pointers pointers;
+
+    public FakePlayer(UUID uniqueId) {
+        this.pointers = Pointers.builder().withStatic(Identity.UUID, uniqueId).build();
+    }
+
+    @Override
+    public @NotNull Pointers pointers() {
+        return pointers;
+    }
+}
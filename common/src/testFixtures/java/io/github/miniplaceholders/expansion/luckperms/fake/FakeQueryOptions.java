@@ -0,0 +1,56 @@
+package io.github.miniplaceholders.expansion.luckperms.fake;
+
+import net.luckperms.api.context.ContextSatisfyMode;
+import net.luckperms.api.context.ContextSet;
+import net.luckperms.api.context.ImmutableContextSet;
+import net.luckperms.api.query.Flag;
+import net.luckperms.api.query.OptionKey;
+import net.luckperms.api.query.QueryMode;
+import net.luckperms.api.query.QueryOptions;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Contextual {@link QueryOptions} without flags nor options
+ */
+public record FakeQueryOptions(@NotNull ImmutableContextSet context) implements QueryOptions {
+    public static final FakeQueryOptions STATIC = new FakeQueryOptions(FakeContextSet.EMPTY);
+
+    @Override
+    public @NotNull QueryMode mode() {
+        return QueryMode.CONTEXTUAL;
+    }
+
+    @Override
+    public boolean flag(@NotNull Flag flag) {
+        return false;
+    }
+
+    @Override
+    public @NotNull Set<Flag> flags() {
+        return Set.of();
+    }
+
+    @Override
+    public <O> @NotNull Optional<O> option(@NotNull OptionKey<O> key) {
+        return Optional.empty();
+    }
+
+    @Override
+    public @NotNull Map<OptionKey<?>, Object> options() {
+        return Map.of();
+    }
+
+    @Override
+    public boolean satisfies(@NotNull ContextSet contextSet, @NotNull ContextSatisfyMode mode) {
+        return contextSet.isSatisfiedBy(context, mode);
+    }
+
+    @Override
+    public @NotNull Builder toBuilder() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,14 @@
+package io.github.miniplaceholders.expansion.luckperms.fake;
+
+import net.luckperms.api.cacheddata.Result;
+import net.luckperms.api.node.Node;
+
+/**
+ * {@link Result} without a cause node
+ */
+record FakeResult<T, N extends Node>(T result) implements Result<T, N> {
+    @Override
+    public N node() {
+        return null;
+    }
+}
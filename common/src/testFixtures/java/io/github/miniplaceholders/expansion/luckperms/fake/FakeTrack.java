@@ -0,0 +1,99 @@
+package io.github.miniplaceholders.expansion.luckperms.fake;
+
+import net.luckperms.api.context.ContextSet;
+import net.luckperms.api.model.data.DataMutateResult;
+import net.luckperms.api.model.group.Group;
+import net.luckperms.api.model.user.User;
+import net.luckperms.api.track.DemotionResult;
+import net.luckperms.api.track.PromotionResult;
+import net.luckperms.api.track.Track;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Immutable in-memory {@link Track}
+ */
+public final class FakeTrack implements Track {
+    private final String name;
+    private final List<String> groups;
+
+    public FakeTrack(String name, List<String> groups) {
+        this.name = name;
+        this.groups = List.copyOf(groups);
+    }
+
+    @Override
+    public @NotNull String getName() {
+        return name;
+    }
+
+    @Override
+    public @NotNull List<String> getGroups() {
+        return groups;
+    }
+
+    @Override
+    public @Nullable String getNext(@NotNull Group current) {
+        final int index = groups.indexOf(current.getName());
+        if (index == -1) {
+            throw new IllegalArgumentException(current.getName() + " is not on the track");
+        }
+        return index == groups.size() - 1 ? null : groups.get(index + 1);
+    }
+
+    @Override
+    public @Nullable String getPrevious(@NotNull Group current) {
+        final int index = groups.indexOf(current.getName());
+        if (index == -1) {
+            throw new IllegalArgumentException(current.getName() + " is not on the track");
+        }
+        return index == 0 ? null : groups.get(index - 1);
+    }
+
+    @Override
+    public @NotNull PromotionResult promote(@NotNull User user, @NotNull ContextSet contextSet) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public @NotNull DemotionResult demote(@NotNull User user, @NotNull ContextSet contextSet) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public @NotNull DataMutateResult appendGroup(@NotNull Group group) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public @NotNull DataMutateResult insertGroup(@NotNull Group group, int position) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public @NotNull DataMutateResult removeGroup(@NotNull Group group) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public @NotNull DataMutateResult removeGroup(@NotNull String group) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean containsGroup(@NotNull Group group) {
+        return groups.contains(group.getName());
+    }
+
+    @Override
+    public boolean containsGroup(@NotNull String group) {
+        return groups.contains(group);
+    }
+
+    @Override
+    public void clearGroups() {
+        throw new UnsupportedOperationException();
+    }
+}
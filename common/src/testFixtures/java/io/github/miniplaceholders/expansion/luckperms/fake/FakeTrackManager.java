@@ -0,0 +1,63 @@
+package io.github.miniplaceholders.expansion.luckperms.fake;
+
+import net.luckperms.api.track.Track;
+import net.luckperms.api.track.TrackManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link TrackManager} over the tracks registered in memory
+ */
+public final class FakeTrackManager implements TrackManager {
+    private final Map<String, FakeTrack> tracks = new ConcurrentHashMap<>();
+
+    public void register(FakeTrack track) {
+        tracks.put(track.getName(), track);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Track> createAndLoadTrack(@NotNull String name) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Optional<Track>> loadTrack(@NotNull String name) {
+        return CompletableFuture.completedFuture(Optional.ofNullable(tracks.get(name)));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Void> saveTrack(@NotNull Track track) {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Void> deleteTrack(@NotNull Track track) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Void> loadAllTracks() {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public @Nullable Track getTrack(@NotNull String name) {
+        return tracks.get(name);
+    }
+
+    @Override
+    public @NotNull Set<Track> getLoadedTracks() {
+        return Set.copyOf(tracks.values());
+    }
+
+    @Override
+    public boolean isLoaded(@NotNull String name) {
+        return tracks.containsKey(name);
+    }
+}
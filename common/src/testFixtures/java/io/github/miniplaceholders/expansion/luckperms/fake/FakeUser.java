@@ -0,0 +1,94 @@
+package io.github.miniplaceholders.expansion.luckperms.fake;
+
+import net.luckperms.api.model.data.DataMutateResult;
+import net.luckperms.api.model.group.Group;
+import net.luckperms.api.model.user.User;
+import net.luckperms.api.node.Node;
+import net.luckperms.api.node.types.InheritanceNode;
+import net.luckperms.api.query.QueryOptions;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * In-memory {@link User}, its meta is taken from the heaviest inherited group
+ */
+public final class FakeUser extends FakePermissionHolder implements User {
+    private final UUID uniqueId;
+    private final String username;
+    private final Map<String, String> meta;
+    private volatile String primaryGroup;
+
+    public FakeUser(FakeGroupManager groupManager, UUID uniqueId, String username, String primaryGroup,
+                    Map<String, String> meta, List<Node> nodes, QueryOptions queryOptions) {
+        super(groupManager, nodes, queryOptions);
+        this.uniqueId = uniqueId;
+        this.username = username;
+        this.primaryGroup = primaryGroup;
+        this.meta = Map.copyOf(meta);
+        recalculate();
+    }
+
+    static Map<String, Boolean> permissionMap(Collection<Node> nodes) {
+        final Map<String, Boolean> permissions = new HashMap<>();
+        for (final Node node : nodes) {
+            permissions.putIfAbsent(node.getKey(), node.getValue());
+        }
+        return Map.copyOf(permissions);
+    }
+
+    @Override
+    public void recalculate() {
+        final QueryOptions queryOptions = getQueryOptions();
+        String prefix = null;
+        int weight = Integer.MIN_VALUE;
+        for (final Group group : getInheritedGroups(queryOptions)) {
+            final FakeGroup fakeGroup = (FakeGroup) group;
+            if (fakeGroup.prefix() != null && fakeGroup.getWeight().orElse(0) > weight) {
+                prefix = fakeGroup.prefix();
+                weight = fakeGroup.getWeight().orElse(0);
+            }
+        }
+        cachedData().update(
+            new FakeCachedMetaData(queryOptions, prefix, meta.get("suffix"), primaryGroup, meta),
+            new FakeCachedPermissionData(queryOptions, permissionMap(resolveInheritedNodes(queryOptions)))
+        );
+    }
+
+    @Override
+    public @NotNull Identifier getIdentifier() {
+        return new FakeGroup.FakeIdentifier(uniqueId.toString(), Identifier.USER_TYPE);
+    }
+
+    @Override
+    public @NotNull UUID getUniqueId() {
+        return uniqueId;
+    }
+
+    @Override
+    public @Nullable String getUsername() {
+        return username;
+    }
+
+    @Override
+    public @NotNull String getPrimaryGroup() {
+        return primaryGroup;
+    }
+
+    @Override
+    public @NotNull DataMutateResult setPrimaryGroup(@NotNull String group) {
+        for (final Node node : getNodes()) {
+            if (node instanceof InheritanceNode inheritance && inheritance.getGroupName().equals(group)) {
+                this.primaryGroup = group;
+                recalculate();
+                return DataMutateResult.SUCCESS;
+            }
+        }
+        return DataMutateResult.FAIL;
+    }
+}
@@ -0,0 +1,33 @@
+package io.github.miniplaceholders.expansion.luckperms.fake;
+
+import net.luckperms.api.LuckPerms;
+import net.luckperms.api.cacheddata.CachedDataManager;
+import net.luckperms.api.event.LuckPermsEvent;
+import net.luckperms.api.event.user.UserDataRecalculateEvent;
+import net.luckperms.api.model.user.User;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * {@link UserDataRecalculateEvent} posted by {@link FakeLuckPerms#mutate(FakeUser, java.util.List)}
+ */
+record FakeUserDataRecalculateEvent(LuckPerms luckPerms, User user) implements UserDataRecalculateEvent {
+    @Override
+    public @NotNull User getUser() {
+        return user;
+    }
+
+    @Override
+    public @NotNull CachedDataManager getData() {
+        return user.getCachedData();
+    }
+
+    @Override
+    public @NotNull LuckPerms getLuckPerms() {
+        return luckPerms;
+    }
+
+    @Override
+    public @NotNull Class<? extends LuckPermsEvent> getEventType() {
+        return UserDataRecalculateEvent.class;
+    }
+}
@@ -0,0 +1,104 @@
+package io.github.miniplaceholders.expansion.luckperms.fake;
+
+import net.luckperms.api.model.PlayerSaveResult;
+import net.luckperms.api.model.user.User;
+import net.luckperms.api.model.user.UserManager;
+import net.luckperms.api.node.HeldNode;
+import net.luckperms.api.node.Node;
+import net.luckperms.api.node.matcher.NodeMatcher;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link UserManager} over the users registered in memory, all of them are always loaded
+ */
+public final class FakeUserManager implements UserManager {
+    private final Map<UUID, FakeUser> users = new ConcurrentHashMap<>();
+
+    public void register(FakeUser user) {
+        users.put(user.getUniqueId(), user);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<User> loadUser(@NotNull UUID uniqueId, @Nullable String username) {
+        return CompletableFuture.completedFuture(users.get(uniqueId));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<UUID> lookupUniqueId(@NotNull String username) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public @NotNull CompletableFuture<String> lookupUsername(@NotNull UUID uniqueId) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Void> saveUser(@NotNull User user) {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<PlayerSaveResult> savePlayerData(@NotNull UUID uniqueId, @NotNull String username) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Void> deletePlayerData(@NotNull UUID uniqueId) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Set<UUID>> getUniqueUsers() {
+        return CompletableFuture.completedFuture(Set.copyOf(users.keySet()));
+    }
+
+    @Override
+    public <T extends Node> @NotNull CompletableFuture<Map<UUID, Collection<T>>> searchAll(@NotNull NodeMatcher<? extends T> matcher) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    @Deprecated
+    public @NotNull CompletableFuture<List<HeldNode<UUID>>> getWithPermission(@NotNull String permission) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public @Nullable User getUser(@NotNull UUID uniqueId) {
+        return users.get(uniqueId);
+    }
+
+    @Override
+    public @Nullable User getUser(@NotNull String username) {
+        for (final FakeUser user : users.values()) {
+            if (username.equalsIgnoreCase(user.getUsername())) {
+                return user;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public @NotNull Set<User> getLoadedUsers() {
+        return Set.copyOf(users.values());
+    }
+
+    @Override
+    public boolean isLoaded(@NotNull UUID uniqueId) {
+        return users.containsKey(uniqueId);
+    }
+
+    @Override
+    public void cleanupUser(@NotNull User user) {
+    }
+}
@@ -0,0 +1,26 @@
+package io.github.miniplaceholders.expansion.luckperms.paper;
+
+import io.github.miniplaceholders.expansion.luckperms.common.CommonExpansion;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+
+final class PaperListener implements Listener {
+	private final CommonExpansion expansion;
+
+	PaperListener(final CommonExpansion expansion) {
+		this.expansion = expansion;
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onJoin(final PlayerJoinEvent event) {
+		this.expansion.prewarm(event.getPlayer().getUniqueId());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onWorldChange(final PlayerChangedWorldEvent event) {
+		this.expansion.invalidateContext(event.getPlayer().getUniqueId());
+	}
+}
@@ -0,0 +1,35 @@
+package io.github.miniplaceholders.expansion.luckperms.paper;
+
+import io.github.miniplaceholders.expansion.luckperms.common.MetricsCommand;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+final class PaperMetricsCommand extends Command {
+	private final MetricsCommand handler;
+
+	PaperMetricsCommand(final MetricsCommand handler) {
+		super(MetricsCommand.NAME, "Shows the LuckPerms placeholder metrics", "/" + MetricsCommand.NAME + " [enable|disable|reset]", List.of());
+		this.handler = handler;
+		this.setPermission(MetricsCommand.PERMISSION);
+	}
+
+	@Override
+	public boolean execute(@NotNull CommandSender sender, @NotNull String label, @NotNull String[] args) {
+		if (!this.testPermission(sender)) {
+			return true;
+		}
+		handler.execute(sender, args);
+		return true;
+	}
+
+	@Override
+	public @NotNull List<String> tabComplete(@NotNull CommandSender sender, @NotNull String alias, @NotNull String[] args) {
+		if (!this.testPermissionSilent(sender)) {
+			return List.of();
+		}
+		return handler.suggest(args);
+	}
+}
@@ -1,14 +1,25 @@
 package io.github.miniplaceholders.expansion.luckperms.paper;
 
+import io.github.miniplaceholders.api.Expansion;
+import io.github.miniplaceholders.expansion.luckperms.common.BulkResolver;
+import io.github.miniplaceholders.expansion.luckperms.common.ChangeNotifier;
 import io.github.miniplaceholders.expansion.luckperms.common.CommonExpansion;
+import io.github.miniplaceholders.expansion.luckperms.common.MetricsCommand;
+import io.github.miniplaceholders.expansion.luckperms.common.Settings;
 import net.luckperms.api.LuckPerms;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.RegisteredServiceProvider;
+import org.bukkit.plugin.ServicePriority;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.io.IOException;
+import java.util.Locale;
+
 @SuppressWarnings("unused")
 public final class PaperPlugin extends JavaPlugin {
+	private CommonExpansion expansion;
+
 	@Override
 	public void onEnable(){
 		this.getSLF4JLogger().info("Starting LuckPerms Expansion for Paper");
@@ -22,9 +33,37 @@ public final class PaperPlugin extends JavaPlugin {
 
 		final LuckPerms luckPerms = provider.getProvider();
 
-		new CommonExpansion(luckPerms).commonBuilder()
+		Settings settings;
+		try {
+			settings = Settings.load(this.getDataFolder().toPath());
+		} catch (IOException | IllegalArgumentException e) {
+			this.getSLF4JLogger().error("Cannot load the configuration, using the defaults", e);
+			settings = Settings.DEFAULTS;
+		}
+
+		final CommonExpansion expansion = new CommonExpansion(luckPerms, settings);
+		this.expansion = expansion;
+		expansion.registerListeners(this);
+		this.getServer().getPluginManager().registerEvents(new PaperListener(expansion), this);
+		final Expansion built = expansion.commonBuilder()
 				.filter(Player.class)
-				.build()
-				.register();
+				.build();
+		built.register();
+		// exposes bulk resolution to integrations rendering a whole frame at once
+		this.getServer().getServicesManager().register(BulkResolver.class, new BulkResolver(built), this, ServicePriority.Normal);
+		// lets scoreboard and tab integrations update only the values that changed
+		this.getServer().getServicesManager().register(ChangeNotifier.class, expansion.changeNotifier(this, built), this, ServicePriority.Normal);
+
+		this.getServer().getCommandMap().register(
+				this.getName().toLowerCase(Locale.ROOT),
+				new PaperMetricsCommand(new MetricsCommand(expansion.metrics()))
+		);
+	}
+
+	@Override
+	public void onDisable() {
+		if (this.expansion != null) {
+			this.expansion.shutdown();
+		}
 	}
 }
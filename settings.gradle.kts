@@ -1,6 +1,6 @@
 enableFeaturePreview("TYPESAFE_PROJECT_ACCESSORS")
 rootProject.name = "MiniPlaceholders-LuckPerms"
 
-arrayOf("paper", "velocity", "common").forEach {
+arrayOf("paper", "velocity", "common", "benchmark").forEach {
     include(it)
 }
@@ -2,28 +2,72 @@ package io.github.miniplaceholders.expansion.luckperms.sponge;
 
 import com.google.inject.Inject;
 import io.github.miniplaceholders.expansion.luckperms.common.CommonExpansion;
+import io.github.miniplaceholders.expansion.luckperms.common.Settings;
 import net.luckperms.api.LuckPerms;
 import net.luckperms.api.LuckPermsProvider;
 import org.apache.logging.log4j.Logger;
 import org.spongepowered.api.Server;
 import org.spongepowered.api.entity.living.player.server.ServerPlayer;
+import org.spongepowered.api.config.ConfigDir;
 import org.spongepowered.api.event.Listener;
+import org.spongepowered.api.event.entity.ChangeEntityWorldEvent;
 import org.spongepowered.api.event.lifecycle.StartingEngineEvent;
+import org.spongepowered.api.event.lifecycle.StoppingEngineEvent;
+import org.spongepowered.api.event.network.ServerSideConnectionEvent;
 import org.spongepowered.plugin.builtin.jvm.Plugin;
 
+import java.io.IOException;
+import java.nio.file.Path;
+
 @Plugin("miniplaceholders-luckperms-expansion")
 public class SpongePlugin {
     @Inject
     private Logger logger;
+    @Inject
+    @ConfigDir(sharedRoot = false)
+    private Path configDirectory;
+    private CommonExpansion expansion;
 
     @Listener
     public void onServerStart(final StartingEngineEvent<Server> event) {
         this.logger.info("Starting LuckPerms Expansion for Sponge");
 
         final LuckPerms luckPerms = LuckPermsProvider.get();
-        new CommonExpansion(luckPerms).commonBuilder()
+        Settings settings;
+        try {
+            settings = Settings.load(this.configDirectory);
+        } catch (IOException | IllegalArgumentException e) {
+            this.logger.error("Cannot load the configuration, using the defaults", e);
+            settings = Settings.DEFAULTS;
+        }
+
+        final CommonExpansion expansion = new CommonExpansion(luckPerms, settings);
+        this.expansion = expansion;
+        expansion.registerListeners(this);
+        expansion.commonBuilder()
                 .filter(ServerPlayer.class)
                 .build()
                 .register();
     }
+
+    @Listener
+    public void onJoin(final ServerSideConnectionEvent.Join event) {
+        if (this.expansion != null) {
+            this.expansion.prewarm(event.player().uniqueId());
+        }
+    }
+
+    @Listener
+    public void onWorldChange(final ChangeEntityWorldEvent.Post event) {
+        if (this.expansion != null && event.entity() instanceof ServerPlayer player) {
+            this.expansion.invalidateContext(player.uniqueId());
+        }
+    }
+
+    @Listener
+    public void onServerStop(final StoppingEngineEvent<Server> event) {
+        if (this.expansion != null) {
+            this.expansion.shutdown();
+        }
+    }
 }
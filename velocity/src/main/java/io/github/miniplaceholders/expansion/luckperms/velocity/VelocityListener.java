@@ -0,0 +1,25 @@
+package io.github.miniplaceholders.expansion.luckperms.velocity;
+
+import com.velocitypowered.api.event.PostOrder;
+import com.velocitypowered.api.event.Subscribe;
+import com.velocitypowered.api.event.connection.PostLoginEvent;
+import com.velocitypowered.api.event.player.ServerPostConnectEvent;
+import io.github.miniplaceholders.expansion.luckperms.common.CommonExpansion;
+
+final class VelocityListener {
+    private final CommonExpansion expansion;
+
+    VelocityListener(final CommonExpansion expansion) {
+        this.expansion = expansion;
+    }
+
+    @Subscribe(order = PostOrder.LAST)
+    public void onPostLogin(final PostLoginEvent event) {
+        this.expansion.prewarm(event.getPlayer().getUniqueId());
+    }
+
+    @Subscribe(order = PostOrder.LAST)
+    public void onServerSwitch(final ServerPostConnectEvent event) {
+        this.expansion.invalidateContext(event.getPlayer().getUniqueId());
+    }
+}
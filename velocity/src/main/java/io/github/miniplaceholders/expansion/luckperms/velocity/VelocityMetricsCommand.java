@@ -0,0 +1,29 @@
+package io.github.miniplaceholders.expansion.luckperms.velocity;
+
+import com.velocitypowered.api.command.SimpleCommand;
+import io.github.miniplaceholders.expansion.luckperms.common.MetricsCommand;
+
+import java.util.List;
+
+final class VelocityMetricsCommand implements SimpleCommand {
+    private final MetricsCommand handler;
+
+    VelocityMetricsCommand(final MetricsCommand handler) {
+        this.handler = handler;
+    }
+
+    @Override
+    public void execute(final Invocation invocation) {
+        handler.execute(invocation.source(), invocation.arguments());
+    }
+
+    @Override
+    public List<String> suggest(final Invocation invocation) {
+        return handler.suggest(invocation.arguments());
+    }
+
+    @Override
+    public boolean hasPermission(final Invocation invocation) {
+        return invocation.source().hasPermission(MetricsCommand.PERMISSION);
+    }
+}
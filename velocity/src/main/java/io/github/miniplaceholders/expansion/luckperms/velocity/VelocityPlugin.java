@@ -1,16 +1,28 @@
 package io.github.miniplaceholders.expansion.luckperms.velocity;
 
 import com.google.inject.Inject;
+import com.velocitypowered.api.command.CommandManager;
 import com.velocitypowered.api.event.Subscribe;
 import com.velocitypowered.api.event.proxy.ProxyInitializeEvent;
+import com.velocitypowered.api.event.proxy.ProxyShutdownEvent;
 import com.velocitypowered.api.plugin.Dependency;
 import com.velocitypowered.api.plugin.Plugin;
+import com.velocitypowered.api.plugin.annotation.DataDirectory;
 import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.ProxyServer;
+import io.github.miniplaceholders.api.Expansion;
+import io.github.miniplaceholders.expansion.luckperms.common.BulkResolver;
+import io.github.miniplaceholders.expansion.luckperms.common.ChangeNotifier;
 import io.github.miniplaceholders.expansion.luckperms.common.CommonExpansion;
+import io.github.miniplaceholders.expansion.luckperms.common.MetricsCommand;
+import io.github.miniplaceholders.expansion.luckperms.common.Settings;
 import net.luckperms.api.LuckPerms;
 import net.luckperms.api.LuckPermsProvider;
 import org.slf4j.Logger;
 
+import java.io.IOException;
+import java.nio.file.Path;
+
 @Plugin(
         name = "MiniPlaceholders-LuckPerms",
         id = "miniplaceholders-luckperms",
@@ -24,10 +36,17 @@ import org.slf4j.Logger;
 )
 public final class VelocityPlugin {
     private final Logger logger;
+    private final ProxyServer proxy;
+    private final Path dataDirectory;
+    private CommonExpansion expansion;
+    private BulkResolver bulkResolver;
+    private ChangeNotifier changeNotifier;
 
     @Inject
-    public VelocityPlugin(Logger logger) {
+    public VelocityPlugin(Logger logger, ProxyServer proxy, @DataDirectory Path dataDirectory) {
         this.logger = logger;
+        this.proxy = proxy;
+        this.dataDirectory = dataDirectory;
     }
 
     @Subscribe
@@ -36,9 +55,56 @@ public final class VelocityPlugin {
 
         final LuckPerms luckPerms = LuckPermsProvider.get();
 
-        new CommonExpansion(luckPerms).commonBuilder()
+        Settings settings;
+        try {
+            settings = Settings.load(dataDirectory);
+        } catch (IOException | IllegalArgumentException e) {
+            logger.error("Cannot load the configuration, using the defaults", e);
+            settings = Settings.DEFAULTS;
+        }
+
+        final CommonExpansion expansion = new CommonExpansion(luckPerms, settings);
+        this.expansion = expansion;
+        expansion.registerListeners(this);
+        proxy.getEventManager().register(this, new VelocityListener(expansion));
+        final Expansion built = expansion.commonBuilder()
                 .filter(Player.class)
-                .build()
-                .register();
+                .build();
+        built.register();
+        this.bulkResolver = new BulkResolver(built);
+        this.changeNotifier = expansion.changeNotifier(this, built);
+
+        final CommandManager commandManager = proxy.getCommandManager();
+        commandManager.register(
+                commandManager.metaBuilder(MetricsCommand.NAME).build(),
+                new VelocityMetricsCommand(new MetricsCommand(expansion.metrics()))
+        );
+    }
+
+    @Subscribe
+    public void onProxyShutdown(final ProxyShutdownEvent event) {
+        if (this.expansion != null) {
+            this.expansion.shutdown();
+        }
+    }
+
+    /**
+     * Gets the resolver of luckperms placeholders for many players at once,
+     * available once the proxy is initialized.
+     *
+     * @return the bulk resolver
+     */
+    public BulkResolver bulkResolver() {
+        return this.bulkResolver;
+    }
+
+    /**
+     * Gets the notifier of luckperms placeholder value changes,
+     * available once the proxy is initialized.
+     *
+     * @return the change notifier
+     */
+    public ChangeNotifier changeNotifier() {
+        return this.changeNotifier;
     }
 }